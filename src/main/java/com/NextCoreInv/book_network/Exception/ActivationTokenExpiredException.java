@@ -0,0 +1,8 @@
+package com.NextCoreInv.book_network.Exception;
+
+public class ActivationTokenExpiredException extends RuntimeException {
+
+    public ActivationTokenExpiredException(String msg) {
+        super(msg);
+    }
+}
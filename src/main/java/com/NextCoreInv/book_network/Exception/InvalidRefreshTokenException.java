@@ -0,0 +1,8 @@
+package com.NextCoreInv.book_network.Exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String msg) {
+        super(msg);
+    }
+}
@@ -34,6 +34,21 @@ public class AuthenticationController {
         return ResponseEntity.ok(service.authentication(request));
     }
 
+    //renew the access token with a refresh token
+    @PostMapping("/refresh-token")
+    public ResponseEntity<AuthenticationResponse> refreshToken(
+            @RequestBody @Valid RefreshTokenRequest request
+    ){
+        return ResponseEntity.ok(service.refreshToken(request));
+    }
+
+    //revoke a refresh token
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody @Valid RefreshTokenRequest request) {
+        service.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+
     //activate account
     @GetMapping("/activate-account")
     public void confirm(@RequestParam String token) throws MessagingException {
@@ -9,4 +9,6 @@ import lombok.Setter;
 @Builder
 public class AuthenticationResponse {
     private String token;
+    // Exchanged at /auth/refresh-token for a new pair once the access token expires
+    private String refreshToken;
 }
@@ -1,19 +1,26 @@
 package com.NextCoreInv.book_network.auth;
 
+import com.NextCoreInv.book_network.Exception.ActivationTokenExpiredException;
 import com.NextCoreInv.book_network.email.EmailService;
 import com.NextCoreInv.book_network.email.EmailTemplateName;
 import com.NextCoreInv.book_network.role.RoleRepository;
 import com.NextCoreInv.book_network.security.JwtService;
+import com.NextCoreInv.book_network.security.LoginAttemptService;
+import com.NextCoreInv.book_network.security.RefreshTokenService;
 import com.NextCoreInv.book_network.user.Token;
 import com.NextCoreInv.book_network.user.TokenRepository;
 import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserDetailsChangedEvent;
 import com.NextCoreInv.book_network.user.UserRepository;
 import jakarta.mail.MessagingException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -33,11 +40,16 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoginAttemptService loginAttemptService;
+    private final RefreshTokenService refreshTokenService;
 
     @Value("${application.mailing.frontend.activation-url}")
     private String activationurl;
 
 
+    // The user, its activation token and the activation email are committed together
+    @Transactional
     public void register(RegistrationRequest request) throws MessagingException {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new IllegalStateException("Email already exists");
@@ -106,38 +118,60 @@ public class AuthenticationService {
     }
 
     public AuthenticationResponse authentication(AuthenticationRequest request) {
-        var auth  = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
-        var claims = new HashMap<String,Object>();
+        Authentication auth;
+        try {
+            auth = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            // Repeated failures lock the account
+            loginAttemptService.onFailure(request.getEmail());
+            throw e;
+        }
+        loginAttemptService.onSuccess(request.getEmail());
         var user = ((User)auth.getPrincipal());
-        claims.put("fullName", user.getFullName());
-        var jwtToken = jwtService.generateToken(claims,user);
-        return AuthenticationResponse.builder().token(jwtToken).build();
-
-
+        return authenticationResponse(user, refreshTokenService.issue(user));
+    }
 
+    // Renews the access token without checking the password again; the refresh token is rotated
+    public AuthenticationResponse refreshToken(RefreshTokenRequest request) {
+        var rotation = refreshTokenService.rotate(request.refreshToken());
+        return authenticationResponse(rotation.user(), rotation.refreshToken());
+    }
 
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.refreshToken());
+    }
 
+    private AuthenticationResponse authenticationResponse(User user, String refreshToken) {
+        var claims = new HashMap<String,Object>();
+        claims.put("fullName", user.getFullName());
+        var jwtToken = jwtService.generateToken(claims,user);
+        return AuthenticationResponse.builder()
+                .token(jwtToken)
+                .refreshToken(refreshToken)
+                .build();
     }
 
-    @Transactional
+    // An expired token still commits the replacement token and its email before the error is reported
+    @Transactional(dontRollbackOn = ActivationTokenExpiredException.class)
     public void activateAccount(String token) throws MessagingException {
         Token savedToken = tokenRepository.findByToken(token)
                 //todo exception has to be defined
                 .orElseThrow(()->new RuntimeException("Token not found"));
         if(LocalDateTime.now().isAfter(savedToken.getExpiresAt())) {
             sendValidationEmail(savedToken.getUser());
-            throw new RuntimeException("Activation token has expired.A new Token has been send to the same email address");
+            throw new ActivationTokenExpiredException("Activation token has expired.A new Token has been send to the same email address");
 
         }
         var user  = userRepository.findById(savedToken.getUser().getId())
                 .orElseThrow(()->new RuntimeException("User not found"));
         user.setEnabled(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserDetailsChangedEvent(user.getEmail()));
         savedToken.setValidatedAt(LocalDateTime.now());
         tokenRepository.save(savedToken);
 
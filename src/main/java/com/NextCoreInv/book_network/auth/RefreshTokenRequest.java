@@ -0,0 +1,9 @@
+package com.NextCoreInv.book_network.auth;
+
+import jakarta.validation.constraints.NotEmpty;
+
+public record RefreshTokenRequest(
+        @NotEmpty(message = "Refresh token is mandatory")
+        String refreshToken
+) {
+}
@@ -10,6 +10,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -26,9 +27,21 @@ public class Book extends BaseEntity {
     private String isbn;
     private String synopsis;
     private String bookCover;
+    // Scaled-down copies of bookCover, filled in asynchronously after each upload
+    private String bookCoverThumbnail;
+    private String bookCoverMedium;
     private boolean archived;
     private boolean shareable;
 
+    // Running aggregate of feedback notes, maintained by FeedbackService on every new feedback
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private double ratingSum;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int ratingCount;
+
      @ManyToOne
      @JoinColumn(name = "owner_id")
      private User owner;
@@ -40,18 +53,34 @@ public class Book extends BaseEntity {
     private List<BookTransactionHistory> histories;
 
 
+    /**
+     * Path of the requested cover rendition, falling back to the original while it is not generated.
+     */
+    @Transient
+    public String getBookCover(CoverSize size) {
+        String rendition = switch (size) {
+            case THUMBNAIL -> bookCoverThumbnail;
+            case MEDIUM -> bookCoverMedium;
+            case ORIGINAL -> bookCover;
+        };
+        return rendition != null ? rendition : bookCover;
+    }
+
+    // Listed in the public catalog
+    @Transient
+    public boolean isDisplayable() {
+        return !archived && shareable;
+    }
+
     @Transient
     public double getRate() {
-        if (feedbacks == null || feedbacks.isEmpty()) {
+        return computeRate(ratingSum, ratingCount);
+    }
+
+    public static double computeRate(double ratingSum, int ratingCount) {
+        if (ratingCount == 0) {
             return 0.0;
         }
-        var rate = this.feedbacks.stream()
-                .mapToDouble(Feedback::getNote)
-                .average()
-                .orElse(0.0);
-        double roundedRate = Math.round(rate * 10.0) / 10.0;
-
-        // Return 4.0 if roundedRate is less than 4.5, otherwise return 4.5
-        return roundedRate;
+        return Math.round(ratingSum / ratingCount * 10.0) / 10.0;
     }
 }
@@ -0,0 +1,16 @@
+package com.NextCoreInv.book_network.book;
+
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BookBatchRequest(
+        @NotNull(message = "104")
+        @NotEmpty(message = "104")
+        @Size(max = 100, message = "105")
+        List<@NotNull(message = "104") Integer> bookIds
+) {
+}
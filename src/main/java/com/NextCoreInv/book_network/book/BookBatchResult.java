@@ -0,0 +1,31 @@
+package com.NextCoreInv.book_network.book;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of one book in a batch operation: the transaction ID on success, the reason otherwise.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookBatchResult {
+
+    private Integer bookId;
+    private Integer transactionId;
+    private String error;
+
+    public static BookBatchResult success(Integer bookId, Integer transactionId) {
+        return new BookBatchResult(bookId, transactionId, null);
+    }
+
+    public static BookBatchResult failure(Integer bookId, String error) {
+        return new BookBatchResult(bookId, null, error);
+    }
+}
@@ -1,15 +1,25 @@
 package com.NextCoreInv.book_network.book;
 
 import com.NextCoreInv.book_network.common.PageResponse;
+import com.NextCoreInv.book_network.common.SliceResponse;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
 @RestController
 @RequestMapping("books")
 @RequiredArgsConstructor
@@ -36,14 +46,53 @@ public class BookController {
         return ResponseEntity.ok(service.findById(bookId));
     }
 
+    //-------------------stream book cover----------------------------------------
+
+    @GetMapping("{book-id}/cover")
+    public ResponseEntity<Resource> findBookCover(
+            @PathVariable("book-id") Integer bookId,
+            @RequestParam(name = "size", defaultValue = "original", required = false) String size
+    ) throws IOException {
+        Resource cover = service.findBookCover(bookId, CoverSize.fromParam(size));
+        long lastModified = cover.lastModified();
+        // Conditional requests (If-None-Match / If-Modified-Since) are answered with 304 by Spring MVC
+        return ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(cover).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .lastModified(lastModified)
+                .eTag(Long.toHexString(lastModified) + "-" + Long.toHexString(cover.contentLength()))
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate())
+                .body(cover);
+    }
+
     //------------------find all books--------------------------------------------
 
     @GetMapping
     public ResponseEntity<PageResponse<BookResponse>> findAllBooks(
          @RequestParam(name = "page",defaultValue = "0" ,required = false) int page,
-         @RequestParam(name = "size",defaultValue = "10" ,required = false) int size
+         @RequestParam(name = "size",defaultValue = "10" ,required = false) int size,
+         @ParameterObject BookFilter filter,
+         Authentication connectedUser
+    ){
+        return ResponseEntity.ok(service.findAllBooks(filter,page,size,connectedUser));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<SliceResponse<BookResponse>> findAllBooksByCursor(
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "size",defaultValue = "10" ,required = false) int size
+    ){
+        return ResponseEntity.ok(service.findAllBooks(cursor,size));
+    }
+
+    //------------------search books--------------------------------------------
+
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<BookResponse>> searchBooks(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "page",defaultValue = "0" ,required = false) int page,
+            @RequestParam(name = "size",defaultValue = "10" ,required = false) int size
     ){
-        return ResponseEntity.ok(service.findAllBooks(page,size));
+        return ResponseEntity.ok(service.searchBooks(query,page,size));
     }
 
     //---------------------------------------------------------------------------
@@ -68,6 +117,15 @@ public class BookController {
         return ResponseEntity.ok(service.findAllBorrowedBooks(page,size,connectedUser));
     }
 
+    @GetMapping(value = "/borrowed", params = "cursor")
+    public ResponseEntity<SliceResponse<BorrowedBookResponse>> findAllBorrowedBooksByCursor(
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "size",defaultValue = "10" ,required = false) int size,
+            Authentication connectedUser
+    ){
+        return ResponseEntity.ok(service.findAllBorrowedBooks(cursor,size,connectedUser));
+    }
+
     //-----------------------------------------------------------------------------------
 
 
@@ -80,6 +138,15 @@ public class BookController {
         return ResponseEntity.ok(service.findAllReturnedBooks(page,size,connectedUser));
     }
 
+    @GetMapping(value = "/returned", params = "cursor")
+    public ResponseEntity<SliceResponse<BorrowedBookResponse>> findAllReturnedBooksByCursor(
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "size",defaultValue = "10" ,required = false) int size,
+            Authentication connectedUser
+    ){
+        return ResponseEntity.ok(service.findAllReturnedBooks(cursor,size,connectedUser));
+    }
+
     //-----------------------------------------------------------------------------------
 
     @PatchMapping("/shareable/{book-id}")
@@ -128,6 +195,32 @@ public class BookController {
         return ResponseEntity.ok(service.approveReturnBorrowedBook(bookId, connectedUser));
     }
 
+    //-------------------batch borrow / return / approve---------------------------------
+
+    @PostMapping("borrow/batch")
+    public ResponseEntity<List<BookBatchResult>> borrowBooks(
+            @Valid @RequestBody BookBatchRequest request,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.borrowBooks(request.bookIds(), connectedUser));
+    }
+
+    @PatchMapping("borrow/return/batch")
+    public ResponseEntity<List<BookBatchResult>> returnBorrowBooks(
+            @Valid @RequestBody BookBatchRequest request,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.returnBorrowedBooks(request.bookIds(), connectedUser));
+    }
+
+    @PatchMapping("borrow/return/approve/batch")
+    public ResponseEntity<List<BookBatchResult>> approveReturnBorrowBooks(
+            @Valid @RequestBody BookBatchRequest request,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.approveReturnBorrowedBooks(request.bookIds(), connectedUser));
+    }
+
     //--------------------------------------------------------------------------------------
     @PostMapping(value = "/cover/{book-id}", consumes = "multipart/form-data")
     public ResponseEntity<?> uploadBookCoverPicture(
@@ -0,0 +1,29 @@
+package com.NextCoreInv.book_network.book;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A named running total over the book table, kept up to date by BookService so listings
+ * do not have to COUNT the table on every request.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "book_counter")
+public class BookCounter {
+
+    public static final String DISPLAYABLE = "displayable";
+
+    @Id
+    private String name;
+
+    private long total;
+}
@@ -0,0 +1,27 @@
+package com.NextCoreInv.book_network.book;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface BookCounterRepository extends JpaRepository<BookCounter, String> {
+
+    @Query("""
+        SELECT counter.total
+        FROM BookCounter counter
+        WHERE counter.name = :name
+        """)
+    Optional<Long> findTotal(@Param("name") String name);
+
+    // Relative update, so concurrent adjustments never overwrite each other
+    @Modifying
+    @Query("""
+        UPDATE BookCounter counter
+        SET counter.total = counter.total + :delta
+        WHERE counter.name = :name
+        """)
+    int add(@Param("name") String name, @Param("delta") long delta);
+}
@@ -0,0 +1,52 @@
+package com.NextCoreInv.book_network.book;
+
+import com.NextCoreInv.book_network.file.FileStorageService;
+import com.NextCoreInv.book_network.file.ImageRenditions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Produces the thumbnail and medium renditions of a freshly uploaded cover on the bounded
+ * cover rendition pool, once the upload is committed, and records their storage keys on the book.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookCoverRenditionJob {
+
+    private final BookRepository bookRepository;
+    private final FileStorageService fileStorageService;
+
+    // Larger covers keep being served as uploaded, without renditions
+    @Value("${application.book.cover.renditions.max-dimension:6000}")
+    private int maxDimension;
+
+    @Async("coverRenditionExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoverUploaded(BookCoverUploadedEvent event) {
+        long start = System.currentTimeMillis();
+        try {
+            Resource original = fileStorageService.loadFile(event.bookCover());
+            BufferedImage image = original == null ? null : ImageRenditions.readImage(original, maxDimension);
+            if (image == null) {
+                return;
+            }
+            String thumbnail = fileStorageService.saveRendition(event.bookCover(), "thumbnail", image, CoverSize.THUMBNAIL.getMaxDimension());
+            String medium = fileStorageService.saveRendition(event.bookCover(), "medium", image, CoverSize.MEDIUM.getMaxDimension());
+
+            // Only applies if the cover was not replaced in the meantime
+            bookRepository.updateCoverRenditions(event.bookId(), event.bookCover(), thumbnail, medium);
+            log.info("Generated cover renditions of book {} in {} ms", event.bookId(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not generate cover renditions of book {}: {}", event.bookId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.NextCoreInv.book_network.book;
+
+/**
+ * Published when a new cover is stored for a book, to trigger rendition generation.
+ *
+ * @param bookId    the book whose cover changed
+ * @param bookCover path of the stored original
+ */
+public record BookCoverUploadedEvent(Integer bookId, String bookCover) {
+}
@@ -0,0 +1,40 @@
+package com.NextCoreInv.book_network.book;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria of the book listing, bound from the query string of {@code GET /books}.
+ * The shareable / archived flags only make sense on the caller's own books, so setting either
+ * of them narrows the listing to those; otherwise the displayable catalog is filtered.
+ */
+public record BookFilter(
+        String author,
+        String isbn,
+        Double minRate,
+        Boolean shareable,
+        Boolean archived,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime createdAfter
+) {
+
+    public BookFilter {
+        author = StringUtils.trimToNull(author);
+        isbn = StringUtils.trimToNull(isbn);
+    }
+
+    public static BookFilter none() {
+        return new BookFilter(null, null, null, null, null, null);
+    }
+
+    public boolean isEmpty() {
+        return author == null && isbn == null && minRate == null
+                && shareable == null && archived == null && createdAfter == null;
+    }
+
+    public boolean isOwnBooksOnly() {
+        return shareable != null || archived != null;
+    }
+}
@@ -1,12 +1,16 @@
 package com.NextCoreInv.book_network.book;
 
-import com.NextCoreInv.book_network.file.FileUtils;
-import com.NextCoreInv.book_network.history.BookTransactionHistory;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Service
 public class BookMapper {
 
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
     public Book toBook(BookRequest request) {
         return Book.builder()
                 .id(request.id())
@@ -30,19 +34,56 @@ public class BookMapper {
                 .archived(book.isArchived())
                 .shareable(book.isShareable())
                 .owner(book.getOwner().fullName())
-                .cover(FileUtils.readFileFromLocation(book.getBookCover()))
+                .coverUrl(toCoverUrl(book.getId(), book.getBookCover(), CoverSize.ORIGINAL))
+                .build();
+    }
+
+    public BookResponse toBookResponse(BookView book) {
+        return BookResponse.builder()
+                .id(book.id())
+                .title(book.title())
+                .authorName(book.authorName())
+                .isbn(book.isbn())
+                .synopsis(book.synopsis())
+                .rate(Book.computeRate(book.ratingSum(), book.ratingCount()))
+                .archived(book.archived())
+                .shareable(book.shareable())
+                .owner(book.ownerFirstname() + " " + book.ownerLastname())
+                .coverUrl(toCoverUrl(book.id(), book.bookCover(), CoverSize.THUMBNAIL))
                 .build();
     }
 
-    public BorrowedBookResponse toBorrowedBookResponse(BookTransactionHistory history) {
+    public BookResponse toBookResponse(BookSearchView book) {
+        return toBookResponse(new BookView(
+                book.getId(), book.getTitle(), book.getAuthorName(), book.getIsbn(), book.getSynopsis(),
+                book.getOwnerFirstname(), book.getOwnerLastname(), book.getBookCover(),
+                book.getRatingSum(), book.getRatingCount(), book.isArchived(), book.isShareable(), null
+        ));
+    }
+
+    public BorrowedBookResponse toBorrowedBookResponse(BorrowedBookView history) {
         return BorrowedBookResponse.builder()
-                .id(history.getBook().getId())
-                .title(history.getBook().getTitle())
-                .authorName(history.getBook().getAuthorName())
-                .isbn(history.getBook().getIsbn())
-                .rate(history.getBook().getRate())
-                .returned(history.isReturned())
-                .returnApproved(history.isReturnApproved())
+                .id(history.id())
+                .title(history.title())
+                .authorName(history.authorName())
+                .isbn(history.isbn())
+                .rate(Book.computeRate(history.ratingSum(), history.ratingCount()))
+                .returned(history.returned())
+                .returnApproved(history.returnApproved())
                 .build();
     }
+
+    // Covers are served by GET /books/{book-id}/cover, so responses only carry the link;
+    // listings point at the thumbnail, single books at the original
+    private String toCoverUrl(Integer bookId, String bookCover, CoverSize size) {
+        if (StringUtils.isBlank(bookCover)) {
+            return null;
+        }
+        UriComponentsBuilder uri = UriComponentsBuilder.fromPath(contextPath)
+                .path("/books/{book-id}/cover");
+        if (size != CoverSize.ORIGINAL) {
+            uri.queryParam("size", size.paramValue());
+        }
+        return uri.buildAndExpand(bookId).toUriString();
+    }
 }
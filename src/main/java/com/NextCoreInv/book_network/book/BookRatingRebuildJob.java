@@ -0,0 +1,39 @@
+package com.NextCoreInv.book_network.book;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the denormalized rating aggregate (ratingSum / ratingCount) of every book
+ * from the feedback table. Runs once on startup to backfill existing data when enabled,
+ * and optionally on a cron schedule to repair any drift.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookRatingRebuildJob implements ApplicationRunner {
+
+    private final BookRepository bookRepository;
+
+    @Value("${application.book.rating.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${application.book.rating.rebuild-cron:-}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int updatedBooks = bookRepository.rebuildRatings();
+        log.info("Rebuilt rating aggregate of {} books in {} ms", updatedBooks, System.currentTimeMillis() - start);
+    }
+}
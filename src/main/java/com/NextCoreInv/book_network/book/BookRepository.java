@@ -2,24 +2,117 @@ package com.NextCoreInv.book_network.book;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
-public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book>, BookViewRepository {
+
+    @Query(value = """
+        SELECT new com.NextCoreInv.book_network.book.BookView(
+            book.id, book.title, book.authorName, book.isbn, book.synopsis,
+            owner.firstname, owner.lastname, book.bookCover,
+            book.ratingSum, book.ratingCount, book.archived, book.shareable, book.createdDate
+        )
+        FROM Book book
+        JOIN book.owner owner
+        WHERE book.archived = false
+        AND book.shareable = true
+        """)
+    // No count query: the total is read from DisplayableBookCounter
+    List<BookView> findAllDisplayableBooks(Pageable pageable);
+
+    @Query(value = """
+        SELECT new com.NextCoreInv.book_network.book.BookView(
+            book.id, book.title, book.authorName, book.isbn, book.synopsis,
+            owner.firstname, owner.lastname, book.bookCover,
+            book.ratingSum, book.ratingCount, book.archived, book.shareable, book.createdDate
+        )
+        FROM Book book
+        JOIN book.owner owner
+        WHERE owner.id = :ownerId
+        """,
+        countQuery = """
+        SELECT COUNT(book)
+        FROM Book book
+        WHERE book.owner.id = :ownerId
+        """)
+    Page<BookView> findAllByOwnerId(@Param("ownerId") Integer ownerId, Pageable pageable);
 
     @Query("""
-        SELECT book
+        SELECT new com.NextCoreInv.book_network.book.BookView(
+            book.id, book.title, book.authorName, book.isbn, book.synopsis,
+            owner.firstname, owner.lastname, book.bookCover,
+            book.ratingSum, book.ratingCount, book.archived, book.shareable, book.createdDate
+        )
         FROM Book book
+        JOIN book.owner owner
+        WHERE book.archived = false
+        AND book.shareable = true
+        ORDER BY book.createdDate DESC, book.id DESC
+        """)
+    Slice<BookView> findDisplayableBooksSlice(Pageable pageable);
+
+    // Keyset seek on (createdDate, id): no OFFSET scan and no COUNT query
+    @Query("""
+        SELECT new com.NextCoreInv.book_network.book.BookView(
+            book.id, book.title, book.authorName, book.isbn, book.synopsis,
+            owner.firstname, owner.lastname, book.bookCover,
+            book.ratingSum, book.ratingCount, book.archived, book.shareable, book.createdDate
+        )
+        FROM Book book
+        JOIN book.owner owner
+        WHERE book.archived = false
+        AND book.shareable = true
+        AND (book.createdDate, book.id) < (:createdDate, :id)
+        ORDER BY book.createdDate DESC, book.id DESC
+        """)
+    Slice<BookView> findDisplayableBooksSliceAfter(@Param("createdDate") LocalDateTime createdDate,
+                                                   @Param("id") Integer id,
+                                                   Pageable pageable);
+
+    // Full-text search over the search_vector generated column (GIN index ix_book_search), best matches first
+    @Query(value = """
+        SELECT book.id AS "id", book.title AS "title", book.author_name AS "authorName",
+               book.isbn AS "isbn", book.synopsis AS "synopsis",
+               owner.firstname AS "ownerFirstname", owner.lastname AS "ownerLastname",
+               book.book_cover AS "bookCover", book.rating_sum AS "ratingSum", book.rating_count AS "ratingCount",
+               book.archived AS "archived", book.shareable AS "shareable"
+        FROM book book
+        JOIN _user owner ON owner.id = book.owner_id
+        WHERE book.archived = false
+        AND book.shareable = true
+        AND book.search_vector @@ websearch_to_tsquery('english', :query)
+        ORDER BY ts_rank_cd(book.search_vector, websearch_to_tsquery('english', :query)) DESC, book.id DESC
+        """,
+        countQuery = """
+        SELECT COUNT(*)
+        FROM book book
         WHERE book.archived = false
         AND book.shareable = true
-   
+        AND book.search_vector @@ websearch_to_tsquery('english', :query)
+        """,
+        nativeQuery = true)
+    Page<BookSearchView> searchDisplayableBooks(@Param("query") String query, Pageable pageable);
+
+    // Batch lookup for the bulk borrow/return/approve operations
+    @Query("""
+        SELECT book
+        FROM Book book
+        JOIN FETCH book.owner
+        WHERE book.id IN :bookIds
         """)
-    Page<Book> findAllDisplayableBooks(Pageable pageable);
+    List<Book> findAllWithOwnerByIdIn(@Param("bookIds") Collection<Integer> bookIds);
 
-    // Add a count method to check how many books match your criteria
+    // Full count behind DisplayableBookCounter, used only to (re)build it
     @Query("""
         SELECT COUNT(book)
         FROM Book book
@@ -28,4 +121,39 @@ public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecifi
         
         """)
     long countDisplayableBooks();
+
+    // Folds a single new feedback note into the book's rating aggregate in one atomic statement
+    @Modifying
+    @Query("""
+        UPDATE Book book
+        SET book.ratingSum = book.ratingSum + CAST(:note AS Double),
+            book.ratingCount = book.ratingCount + 1
+        WHERE book.id = :bookId
+        """)
+    int addRating(@Param("bookId") Integer bookId, @Param("note") double note);
+
+    // Records the renditions of a cover, unless the book got a new cover since they were started
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Book book
+        SET book.bookCoverThumbnail = :thumbnail,
+            book.bookCoverMedium = :medium
+        WHERE book.id = :bookId
+        AND book.bookCover = :bookCover
+        """)
+    int updateCoverRenditions(@Param("bookId") Integer bookId,
+                              @Param("bookCover") String bookCover,
+                              @Param("thumbnail") String thumbnail,
+                              @Param("medium") String medium);
+
+    // Recomputes every rating aggregate from the feedback table (backfill / drift repair)
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Book book
+        SET book.ratingSum = COALESCE((SELECT SUM(feedback.note) FROM Feedback feedback WHERE feedback.book = book), 0),
+            book.ratingCount = (SELECT COUNT(feedback) FROM Feedback feedback WHERE feedback.book = book)
+        """)
+    int rebuildRatings();
 }
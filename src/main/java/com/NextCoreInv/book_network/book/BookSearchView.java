@@ -0,0 +1,32 @@
+package com.NextCoreInv.book_network.book;
+
+/**
+ * Row of the native full-text search query; the columns match {@link BookView}, which cannot
+ * be used here since native queries do not support constructor expressions.
+ */
+public interface BookSearchView {
+
+    Integer getId();
+
+    String getTitle();
+
+    String getAuthorName();
+
+    String getIsbn();
+
+    String getSynopsis();
+
+    String getOwnerFirstname();
+
+    String getOwnerLastname();
+
+    String getBookCover();
+
+    double getRatingSum();
+
+    int getRatingCount();
+
+    boolean isArchived();
+
+    boolean isShareable();
+}
@@ -1,7 +1,10 @@
 package com.NextCoreInv.book_network.book;
 
 import com.NextCoreInv.book_network.Exception.OperationNotPermittedExeption;
+import com.NextCoreInv.book_network.common.KeysetCursor;
 import com.NextCoreInv.book_network.common.PageResponse;
+import com.NextCoreInv.book_network.common.SliceResponse;
+import com.NextCoreInv.book_network.file.CoverCache;
 import com.NextCoreInv.book_network.file.FileStorageService;
 import com.NextCoreInv.book_network.history.BookTransactionHistory;
 import com.NextCoreInv.book_network.history.BookTransactionHistoryRepository;
@@ -10,18 +13,31 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-
-import static com.NextCoreInv.book_network.book.BookSpecification.withOwnerId;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class responsible for managing book-related operations:
@@ -35,11 +51,16 @@ import static com.NextCoreInv.book_network.book.BookSpecification.withOwnerId;
 @Transactional
 public class BookService {
 
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     // Repositories & Utilities
     private final BookRepository bookRepository;
     private final BookTransactionHistoryRepository bookTransactionHistoryRepository;
     private final FileStorageService fileStorageService;
+    private final CoverCache coverCache;
     private final BookMapper bookMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DisplayableBookCounter displayableBookCounter;
 
     /**
      * Saves a new Book entity to the database.
@@ -56,7 +77,9 @@ public class BookService {
         // Set the owner of this book to the current user.
         book.setOwner(user);
         // Save to the DB and return the new Book's ID.
-        return bookRepository.save(book).getId();
+        Integer bookId = bookRepository.save(book).getId();
+        displayableBookCounter.onChange(false, book.isDisplayable());
+        return bookId;
     }
 
     /**
@@ -71,6 +94,24 @@ public class BookService {
                 .orElseThrow(() -> new EntityNotFoundException("No book found with this ID:: " + bookId));
     }
 
+    /**
+     * Resolves the cover file of a Book so it can be streamed to the client.
+     *
+     * @param bookId The target Book's ID.
+     * @param size   The requested rendition; the original is used until it has been generated.
+     * @return The cover content, from the in-memory cover cache when it fits there.
+     */
+    public Resource findBookCover(Integer bookId, CoverSize size) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new EntityNotFoundException("No book found with this ID:: " + bookId));
+
+        Resource cover = fileStorageService.loadFile(book.getBookCover(size));
+        if (cover == null) {
+            throw new EntityNotFoundException("No cover found for the book with ID:: " + bookId);
+        }
+        return coverCache.load(cover);
+    }
+
     /**
      * Retrieves a paginated list of all displayable books (not archived, shareable, etc.)
      * for the current user. The query uses the BookRepository's custom method.
@@ -81,14 +122,13 @@ public class BookService {
      */
     public PageResponse<BookResponse> findAllBooks(int page, int size) {
 
-        long totalMatchingBooks = bookRepository.countDisplayableBooks();
-        System.out.println("Total matching books: " + totalMatchingBooks);
-
+        // The total comes from the maintained counter, so the table is never counted here.
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
-        Page<Book> books = bookRepository.findAllDisplayableBooks(pageable);
-
-        System.out.println("Books returned: " + books.getTotalElements());
-
+        Page<BookView> books = new PageImpl<>(
+                bookRepository.findAllDisplayableBooks(pageable),
+                pageable,
+                displayableBookCounter.get()
+        );
 
         // Map Book entities to DTO responses.
         List<BookResponse> bookResponses = books.stream()
@@ -107,6 +147,107 @@ public class BookService {
         );
     }
 
+    /**
+     * Filtered variant of {@link #findAllBooks(int, int)}. Filters on the shareable / archived flags
+     * list the caller's own books; every other filter narrows the displayable catalog.
+     * Combinations that no index can serve (a rating threshold alone) are rejected.
+     *
+     * @param filter         The criteria given on the query string, possibly none.
+     * @param page           The current page number.
+     * @param size           Number of items per page.
+     * @param connectedUser  Currently authenticated user.
+     * @return A PageResponse containing the matching BookResponse objects.
+     */
+    public PageResponse<BookResponse> findAllBooks(BookFilter filter, int page, int size, Authentication connectedUser) {
+        if (filter.isEmpty()) {
+            return findAllBooks(page, size);
+        }
+        checkIndexable(filter);
+
+        Integer ownerId = filter.isOwnBooksOnly() ? ((User) connectedUser.getPrincipal()).getId() : null;
+        // Ordered like ix_book_displayable_created / ix_book_owner_created
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDate", "id"));
+        Page<BookView> books = bookRepository.findAllViews(BookSpecification.of(filter, ownerId), pageable);
+
+        List<BookResponse> bookResponses = books.stream()
+                .map(bookMapper::toBookResponse)
+                .toList();
+
+        return new PageResponse<>(
+                bookResponses,
+                books.getNumber(),
+                books.getSize(),
+                books.getTotalElements(),
+                books.getTotalPages(),
+                books.isFirst(),
+                books.isLast()
+        );
+    }
+
+    private static void checkIndexable(BookFilter filter) {
+        if (filter.minRate() != null && (filter.minRate() < 0 || filter.minRate() > 5)) {
+            throw new IllegalArgumentException("minRate must be between 0 and 5");
+        }
+        boolean indexed = filter.author() != null
+                || filter.isbn() != null
+                || filter.createdAfter() != null
+                || filter.isOwnBooksOnly();
+        if (!indexed) {
+            // The rating is a computed ratio: on its own it would scan and count every displayable book
+            throw new IllegalArgumentException(
+                    "minRate must be combined with author, isbn, createdAfter, shareable or archived");
+        }
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #findAllBooks(int, int)}: seeks past the given cursor
+     * on (createdDate, id) instead of using an OFFSET, and never counts the matching books.
+     *
+     * @param cursor         Opaque cursor from the previous slice, or blank for the first slice.
+     * @param size           Number of items per slice.
+     * @return A SliceResponse containing BookResponse objects and the next cursor.
+     */
+    public SliceResponse<BookResponse> findAllBooks(String cursor, int size) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.ofSize(size);
+        Slice<BookView> books = position == null
+                ? bookRepository.findDisplayableBooksSlice(pageable)
+                : bookRepository.findDisplayableBooksSliceAfter(position.createdDate(), position.id(), pageable);
+
+        return toSliceResponse(books, bookMapper::toBookResponse,
+                book -> new KeysetCursor(book.createdDate(), book.id()));
+    }
+
+    /**
+     * Full-text search over the title, author, ISBN and synopsis of displayable books,
+     * best matches first. Supports web search syntax: quoted phrases, "or" and "-excluded".
+     *
+     * @param query          The search terms.
+     * @param page           The current page number.
+     * @param size           Number of items per page.
+     * @return A PageResponse containing the matching BookResponse objects.
+     */
+    public PageResponse<BookResponse> searchBooks(String query, int page, int size) {
+        if (StringUtils.isBlank(query) || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("The search query must be between 1 and " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+
+        Page<BookSearchView> books = bookRepository.searchDisplayableBooks(query.trim(), PageRequest.of(page, size));
+        List<BookResponse> bookResponses = books.stream()
+                .map(bookMapper::toBookResponse)
+                .toList();
+
+        return new PageResponse<>(
+                bookResponses,
+                books.getNumber(),
+                books.getSize(),
+                books.getTotalElements(),
+                books.getTotalPages(),
+                books.isFirst(),
+                books.isLast()
+        );
+    }
+
     /**
      * Retrieves a paginated list of books that belong specifically to the current user.
      *
@@ -119,8 +260,8 @@ public class BookService {
         User user = (User) connectedUser.getPrincipal();
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
 
-        // This method uses a Specification to filter books by owner ID.
-        Page<Book> books = bookRepository.findAll(withOwnerId(user.getId()), pageable);
+        // Projected query: books and owner names are fetched in one round trip.
+        Page<BookView> books = bookRepository.findAllByOwnerId(user.getId(), pageable);
 
         List<BookResponse> bookResponses = books.stream()
                 .map(bookMapper::toBookResponse)
@@ -150,7 +291,7 @@ public class BookService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
 
         // Custom repository method to fetch borrowed books.
-        Page<BookTransactionHistory> allBorrowedBooks = bookTransactionHistoryRepository.findAllBorrowedBooks(pageable, user.getId());
+        Page<BorrowedBookView> allBorrowedBooks = bookTransactionHistoryRepository.findAllBorrowedBooks(pageable, user.getId());
 
         List<BorrowedBookResponse> bookResponses = allBorrowedBooks.stream()
                 .map(bookMapper::toBorrowedBookResponse)
@@ -167,6 +308,26 @@ public class BookService {
         );
     }
 
+    /**
+     * Keyset-paginated variant of {@link #findAllBorrowedBooks(int, int, Authentication)}.
+     *
+     * @param cursor         Opaque cursor from the previous slice, or blank for the first slice.
+     * @param size           Number of items per slice.
+     * @param connectedUser  Currently authenticated user.
+     * @return A SliceResponse of BorrowedBookResponse objects and the next cursor.
+     */
+    public SliceResponse<BorrowedBookResponse> findAllBorrowedBooks(String cursor, int size, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.ofSize(size);
+        Slice<BorrowedBookView> borrowedBooks = position == null
+                ? bookTransactionHistoryRepository.findBorrowedBooksSlice(user.getId(), pageable)
+                : bookTransactionHistoryRepository.findBorrowedBooksSliceAfter(user.getId(), position.createdDate(), position.id(), pageable);
+
+        return toSliceResponse(borrowedBooks, bookMapper::toBorrowedBookResponse,
+                history -> new KeysetCursor(history.createdDate(), history.transactionId()));
+    }
+
     /**
      * Retrieves all returned books for the current user, paginated.
      *
@@ -179,7 +340,7 @@ public class BookService {
         User user = (User) connectedUser.getPrincipal();
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
 
-        Page<BookTransactionHistory> allBorrowedBooks = bookTransactionHistoryRepository.findAllReturnedBooks(pageable, user.getId());
+        Page<BorrowedBookView> allBorrowedBooks = bookTransactionHistoryRepository.findAllReturnedBooks(pageable, user.getId());
 
         List<BorrowedBookResponse> bookResponses = allBorrowedBooks.stream()
                 .map(bookMapper::toBorrowedBookResponse)
@@ -196,6 +357,26 @@ public class BookService {
         );
     }
 
+    /**
+     * Keyset-paginated variant of {@link #findAllReturnedBooks(int, int, Authentication)}.
+     *
+     * @param cursor         Opaque cursor from the previous slice, or blank for the first slice.
+     * @param size           Number of items per slice.
+     * @param connectedUser  Currently authenticated user.
+     * @return A SliceResponse of BorrowedBookResponse objects and the next cursor.
+     */
+    public SliceResponse<BorrowedBookResponse> findAllReturnedBooks(String cursor, int size, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.ofSize(size);
+        Slice<BorrowedBookView> returnedBooks = position == null
+                ? bookTransactionHistoryRepository.findReturnedBooksSlice(user.getId(), pageable)
+                : bookTransactionHistoryRepository.findReturnedBooksSliceAfter(user.getId(), position.createdDate(), position.id(), pageable);
+
+        return toSliceResponse(returnedBooks, bookMapper::toBorrowedBookResponse,
+                history -> new KeysetCursor(history.createdDate(), history.transactionId()));
+    }
+
     /**
      * Toggles the "shareable" status of a specific book,
      * ensuring only the owner can perform this action.
@@ -216,8 +397,10 @@ public class BookService {
         }
 
         // Flip the shareable flag.
+        boolean wasDisplayable = book.isDisplayable();
         book.setShareable(!book.isShareable());
         bookRepository.save(book);
+        displayableBookCounter.onChange(wasDisplayable, book.isDisplayable());
         return bookId;
     }
 
@@ -241,8 +424,10 @@ public class BookService {
         }
 
         // Flip the archived flag.
+        boolean wasDisplayable = book.isDisplayable();
         book.setArchived(!book.isArchived());
         bookRepository.save(book);
+        displayableBookCounter.onChange(wasDisplayable, book.isDisplayable());
         return bookId;
     }
 
@@ -251,8 +436,7 @@ public class BookService {
      * - It's not archived
      * - It's marked as shareable
      * - The user does not already own it
-     * - The user hasn't already borrowed it
-     * - Nobody else is currently borrowing it
+     * - Nobody, including the user, is currently borrowing it
      *
      * @param bookId         Target book's ID.
      * @param connectedUser  Currently authenticated user.
@@ -274,27 +458,21 @@ public class BookService {
             throw new OperationNotPermittedExeption("You cannot borrow your own book");
         }
 
-        // Check if the user already has an active borrow for this book.
-        boolean isAlreadyBorrowedByUser = bookTransactionHistoryRepository.isAlreadyBorrowedByUser(bookId, user.getId());
-        if (isAlreadyBorrowedByUser) {
-            throw new OperationNotPermittedExeption("You already borrowed this book and haven't returned/been approved to return it yet");
-        }
-
-        // Check if anyone else is currently borrowing the same book.
-        boolean isAlreadyBorrowedByOtherUser = bookTransactionHistoryRepository.isAlreadyBorrowed(bookId);
-        if (isAlreadyBorrowedByOtherUser) {
-            throw new OperationNotPermittedExeption("This book is currently borrowed by someone else");
-        }
-
-        // Create a new transaction history entry.
+        // Create a new transaction history entry, flagged as the book's open loan.
         BookTransactionHistory bookTransactionHistory = BookTransactionHistory.builder()
                 .user(user)
                 .book(book)
                 .returned(false)
                 .returnApproved(false)
+                .activeBookId(book.getId())
                 .build();
 
-        return bookTransactionHistoryRepository.save(bookTransactionHistory).getId();
+        // The unique active_book_id rejects a second open loan, even between concurrent requests.
+        try {
+            return bookTransactionHistoryRepository.saveAndFlush(bookTransactionHistory).getId();
+        } catch (DataIntegrityViolationException e) {
+            throw new OperationNotPermittedExeption("This book is already borrowed and its return has not been approved yet");
+        }
     }
 
     /**
@@ -352,11 +530,149 @@ public class BookService {
         BookTransactionHistory bookTransactionHistory = bookTransactionHistoryRepository.findByBookIDAndOwnerId(bookId, user.getId())
                 .orElseThrow(() -> new OperationNotPermittedExeption("No open return transaction to approve for this book"));
 
-        // Approve the return.
+        // Approve the return and release the book for the next borrower.
         bookTransactionHistory.setReturnApproved(true);
+        bookTransactionHistory.setActiveBookId(null);
         return bookTransactionHistoryRepository.save(bookTransactionHistory).getId();
     }
 
+    /**
+     * Batch variant of {@link #borrowBook(Integer, Authentication)}. Books and their open loans are
+     * resolved with one IN query each and the new transactions are inserted in a single JDBC batch.
+     *
+     * @param bookIds        IDs of the books to borrow.
+     * @param connectedUser  Currently authenticated user.
+     * @return One result per distinct book ID, in request order.
+     */
+    public List<BookBatchResult> borrowBooks(List<Integer> bookIds, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        Set<Integer> distinctIds = new LinkedHashSet<>(bookIds);
+        Map<Integer, Book> books = findBooksById(distinctIds);
+        Set<Integer> onLoan = new HashSet<>(bookTransactionHistoryRepository.findActiveBookIds(distinctIds));
+
+        Map<Integer, BookTransactionHistory> loans = new LinkedHashMap<>();
+        Map<Integer, String> errors = new HashMap<>();
+        for (Integer bookId : distinctIds) {
+            Book book = books.get(bookId);
+            if (book == null) {
+                errors.put(bookId, "No book found with ID:: " + bookId);
+            } else if (book.isArchived() || !book.isShareable()) {
+                errors.put(bookId, "This book is archived or not shareable, so it cannot be borrowed");
+            } else if (Objects.equals(book.getOwner().getId(), user.getId())) {
+                errors.put(bookId, "You cannot borrow your own book");
+            } else if (onLoan.contains(bookId)) {
+                errors.put(bookId, "This book is already borrowed and its return has not been approved yet");
+            } else {
+                loans.put(bookId, BookTransactionHistory.builder()
+                        .user(user)
+                        .book(book)
+                        .returned(false)
+                        .returnApproved(false)
+                        .activeBookId(bookId)
+                        .build());
+            }
+        }
+
+        // A book borrowed concurrently since the lookup fails the whole batch on the unique active_book_id.
+        try {
+            bookTransactionHistoryRepository.saveAllAndFlush(loans.values());
+        } catch (DataIntegrityViolationException e) {
+            throw new OperationNotPermittedExeption("Some of these books were borrowed in the meantime, please try again");
+        }
+        return toBatchResults(distinctIds, loans, errors);
+    }
+
+    /**
+     * Batch variant of {@link #returnBorrowedBook(Integer, Authentication)}.
+     *
+     * @param bookIds        IDs of the borrowed books to return.
+     * @param connectedUser  Currently authenticated user.
+     * @return One result per distinct book ID, in request order.
+     */
+    public List<BookBatchResult> returnBorrowedBooks(List<Integer> bookIds, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        Set<Integer> distinctIds = new LinkedHashSet<>(bookIds);
+        Map<Integer, Book> books = findBooksById(distinctIds);
+        Map<Integer, BookTransactionHistory> openLoans = byBookId(
+                bookTransactionHistoryRepository.findAllByBookIdsAndUserId(distinctIds, user.getId()));
+
+        Map<Integer, BookTransactionHistory> returned = new LinkedHashMap<>();
+        Map<Integer, String> errors = new HashMap<>();
+        for (Integer bookId : distinctIds) {
+            Book book = books.get(bookId);
+            BookTransactionHistory loan = openLoans.get(bookId);
+            if (book == null) {
+                errors.put(bookId, "No book found with ID:: " + bookId);
+            } else if (book.isArchived() || !book.isShareable()) {
+                errors.put(bookId, "This book cannot be returned because it's either archived or not shareable");
+            } else if (loan == null) {
+                errors.put(bookId, "You did not borrow this book, so you can't return it");
+            } else {
+                loan.setReturned(true);
+                returned.put(bookId, loan);
+            }
+        }
+
+        bookTransactionHistoryRepository.saveAllAndFlush(returned.values());
+        return toBatchResults(distinctIds, returned, errors);
+    }
+
+    /**
+     * Batch variant of {@link #approveReturnBorrowedBook(Integer, Authentication)}.
+     *
+     * @param bookIds        IDs of the returned books to approve.
+     * @param connectedUser  Currently authenticated user (the owner).
+     * @return One result per distinct book ID, in request order.
+     */
+    public List<BookBatchResult> approveReturnBorrowedBooks(List<Integer> bookIds, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        Set<Integer> distinctIds = new LinkedHashSet<>(bookIds);
+        Map<Integer, Book> books = findBooksById(distinctIds);
+        Map<Integer, BookTransactionHistory> pendingReturns = byBookId(
+                bookTransactionHistoryRepository.findAllByBookIdsAndOwnerId(distinctIds, user.getId()));
+
+        Map<Integer, BookTransactionHistory> approved = new LinkedHashMap<>();
+        Map<Integer, String> errors = new HashMap<>();
+        for (Integer bookId : distinctIds) {
+            Book book = books.get(bookId);
+            BookTransactionHistory loan = pendingReturns.get(bookId);
+            if (book == null) {
+                errors.put(bookId, "No book found with ID:: " + bookId);
+            } else if (book.isArchived() || !book.isShareable()) {
+                errors.put(bookId, "This book is archived or not shareable, so no return can be approved");
+            } else if (loan == null) {
+                errors.put(bookId, "No open return transaction to approve for this book");
+            } else {
+                loan.setReturnApproved(true);
+                loan.setActiveBookId(null);
+                approved.put(bookId, loan);
+            }
+        }
+
+        bookTransactionHistoryRepository.saveAllAndFlush(approved.values());
+        return toBatchResults(distinctIds, approved, errors);
+    }
+
+    private Map<Integer, Book> findBooksById(Collection<Integer> bookIds) {
+        return bookRepository.findAllWithOwnerByIdIn(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+    }
+
+    private static Map<Integer, BookTransactionHistory> byBookId(List<BookTransactionHistory> histories) {
+        return histories.stream()
+                .collect(Collectors.toMap(history -> history.getBook().getId(), Function.identity(), (first, second) -> first));
+    }
+
+    private static List<BookBatchResult> toBatchResults(Collection<Integer> bookIds,
+                                                        Map<Integer, BookTransactionHistory> processed,
+                                                        Map<Integer, String> errors) {
+        return bookIds.stream()
+                .map(bookId -> processed.containsKey(bookId)
+                        ? BookBatchResult.success(bookId, processed.get(bookId).getId())
+                        : BookBatchResult.failure(bookId, errors.get(bookId)))
+                .toList();
+    }
+
     /**
      * Uploads a book cover picture for a given book and sets the path to that book entity.
      *
@@ -369,14 +685,35 @@ public class BookService {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
 
-        // Retrieve the current user (not necessarily used for permission checks here, but used for file storage sub-directory).
-        User user = (User) connectedUser.getPrincipal();
+        // Store the file and get its storage key.
+        var bookCover = fileStorageService.saveFile(file);
 
-        // Store the file and get the file path.
-        var bookCover = fileStorageService.saveFile(file, user.getId());
-
-        // Link the saved file path to the Book entity.
+        // Link the saved file key to the Book entity; renditions of the previous cover no longer apply.
         book.setBookCover(bookCover);
+        book.setBookCoverThumbnail(null);
+        book.setBookCoverMedium(null);
         bookRepository.save(book);
+
+        // Thumbnail and medium renditions are generated once this transaction commits.
+        if (bookCover != null) {
+            eventPublisher.publishEvent(new BookCoverUploadedEvent(bookId, bookCover));
+        }
+    }
+
+    /**
+     * Maps a slice of projections to a SliceResponse, deriving the next cursor from its last row.
+     */
+    private <V, R> SliceResponse<R> toSliceResponse(Slice<V> slice, Function<V, R> mapper, Function<V, KeysetCursor> cursorOf) {
+        List<V> rows = slice.getContent();
+        String nextCursor = slice.hasNext() && !rows.isEmpty()
+                ? cursorOf.apply(rows.get(rows.size() - 1)).encode()
+                : null;
+
+        return new SliceResponse<>(
+                rows.stream().map(mapper).toList(),
+                slice.getSize(),
+                nextCursor,
+                !slice.hasNext()
+        );
     }
 }
@@ -2,10 +2,94 @@ package com.NextCoreInv.book_network.book;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Building blocks of the filtered book listing. Each criterion is written so PostgreSQL can serve it
+ * from an index (see V4__query_indexes.sql and V8__book_filter_indexes.sql), except {@link #withMinRate}
+ * which is only ever applied on top of an indexed criterion.
+ */
 public class BookSpecification {
 
-    public  static Specification<Book> withOwnerId(Integer ownerId) {
-            return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("owner").get("id"), ownerId);
+    private static final char LIKE_ESCAPE = '\\';
+
+    public static Specification<Book> withOwnerId(Integer ownerId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("owner").get("id"), ownerId);
+    }
+
+    // Same predicate as the partial index ix_book_displayable_created
+    public static Specification<Book> isDisplayable() {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.isFalse(root.get("archived")),
+                criteriaBuilder.isTrue(root.get("shareable"))
+        );
+    }
+
+    // Case-insensitive, matched against ix_book_author_prefix on lower(author_name)
+    public static Specification<Book> withAuthorPrefix(String author) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(
+                criteriaBuilder.lower(root.get("authorName")),
+                startingWith(author.toLowerCase(Locale.ROOT)),
+                LIKE_ESCAPE
+        );
+    }
+
+    public static Specification<Book> withIsbnPrefix(String isbn) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(root.get("isbn"), startingWith(isbn), LIKE_ESCAPE);
+    }
+
+    // ratingSum / ratingCount >= minRate, without the division so unrated books simply drop out
+    public static Specification<Book> withMinRate(double minRate) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.gt(root.get("ratingCount"), 0),
+                criteriaBuilder.ge(
+                        root.get("ratingSum"),
+                        criteriaBuilder.prod(root.<Number>get("ratingCount"), minRate)
+                )
+        );
+    }
+
+    public static Specification<Book> withShareable(boolean shareable) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("shareable"), shareable);
+    }
+
+    public static Specification<Book> withArchived(boolean archived) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("archived"), archived);
+    }
+
+    public static Specification<Book> createdAfter(LocalDateTime createdDate) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("createdDate"), createdDate);
+    }
+
+    /**
+     * Composes the criteria of a filter: the caller's own books when the shareable or archived flag
+     * is set, the displayable catalog otherwise, narrowed by every other criterion present.
+     */
+    public static Specification<Book> of(BookFilter filter, Integer ownerId) {
+        Specification<Book> specification = filter.isOwnBooksOnly() ? withOwnerId(ownerId) : isDisplayable();
+        if (filter.shareable() != null) {
+            specification = specification.and(withShareable(filter.shareable()));
         }
+        if (filter.archived() != null) {
+            specification = specification.and(withArchived(filter.archived()));
+        }
+        if (filter.author() != null) {
+            specification = specification.and(withAuthorPrefix(filter.author()));
+        }
+        if (filter.isbn() != null) {
+            specification = specification.and(withIsbnPrefix(filter.isbn()));
+        }
+        if (filter.createdAfter() != null) {
+            specification = specification.and(createdAfter(filter.createdAfter()));
+        }
+        if (filter.minRate() != null) {
+            specification = specification.and(withMinRate(filter.minRate()));
+        }
+        return specification;
     }
 
+    private static String startingWith(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,24 @@
+package com.NextCoreInv.book_network.book;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a Book row joined with its owner, selected in a single query
+ * by the listing endpoints so no entity (and none of its lazy/eager associations) is loaded.
+ */
+public record BookView(
+        Integer id,
+        String title,
+        String authorName,
+        String isbn,
+        String synopsis,
+        String ownerFirstname,
+        String ownerLastname,
+        String bookCover,
+        double ratingSum,
+        int ratingCount,
+        boolean archived,
+        boolean shareable,
+        LocalDateTime createdDate
+) {
+}
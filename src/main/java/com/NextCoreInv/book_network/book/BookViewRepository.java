@@ -0,0 +1,14 @@
+package com.NextCoreInv.book_network.book;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specification-driven listing that selects {@link BookView} projections instead of Book entities,
+ * so the filtered listing costs the same single query as the fixed ones in {@link BookRepository}.
+ */
+public interface BookViewRepository {
+
+    Page<BookView> findAllViews(Specification<Book> specification, Pageable pageable);
+}
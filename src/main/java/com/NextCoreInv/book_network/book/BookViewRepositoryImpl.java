@@ -0,0 +1,59 @@
+package com.NextCoreInv.book_network.book;
+
+import com.NextCoreInv.book_network.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class BookViewRepositoryImpl implements BookViewRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<BookView> findAllViews(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<BookView> query = criteriaBuilder.createQuery(BookView.class);
+        Root<Book> book = query.from(Book.class);
+        Join<Book, User> owner = book.join("owner");
+        query.select(criteriaBuilder.construct(BookView.class,
+                book.get("id"), book.get("title"), book.get("authorName"), book.get("isbn"), book.get("synopsis"),
+                owner.get("firstname"), owner.get("lastname"), book.get("bookCover"),
+                book.get("ratingSum"), book.get("ratingCount"), book.get("archived"), book.get("shareable"),
+                book.get("createdDate")
+        ));
+        query.where(specification.toPredicate(book, query, criteriaBuilder));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), book, criteriaBuilder));
+
+        TypedQuery<BookView> pageQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            pageQuery.setFirstResult((int) pageable.getOffset());
+            pageQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<BookView> content = pageQuery.getResultList();
+
+        // Only counted when the page alone cannot tell the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Book> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(criteriaBuilder.count(book));
+        query.where(specification.toPredicate(book, query, criteriaBuilder));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,22 @@
+package com.NextCoreInv.book_network.book;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a BookTransactionHistory row joined with its Book,
+ * holding exactly the columns needed to build a BorrowedBookResponse
+ * plus the transaction keys used for keyset pagination.
+ */
+public record BorrowedBookView(
+        Integer id,
+        String title,
+        String authorName,
+        String isbn,
+        double ratingSum,
+        int ratingCount,
+        boolean returned,
+        boolean returnApproved,
+        Integer transactionId,
+        LocalDateTime createdDate
+) {
+}
@@ -0,0 +1,36 @@
+package com.NextCoreInv.book_network.book;
+
+import java.util.Locale;
+
+/**
+ * Renditions a book cover is served in. Thumbnail and medium are generated
+ * asynchronously after an upload; until then the original is served instead.
+ */
+public enum CoverSize {
+    THUMBNAIL(160),
+    MEDIUM(480),
+    ORIGINAL(0);
+
+    private final int maxDimension;
+
+    CoverSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public String paramValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static CoverSize fromParam(String value) {
+        for (CoverSize size : values()) {
+            if (size.paramValue().equalsIgnoreCase(value)) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cover size: " + value);
+    }
+}
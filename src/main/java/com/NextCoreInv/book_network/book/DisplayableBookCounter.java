@@ -0,0 +1,49 @@
+package com.NextCoreInv.book_network.book;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Number of displayable books (not archived and shareable), maintained incrementally on every
+ * change of those flags instead of being counted on each catalog request. A missing counter row
+ * is rebuilt from a single COUNT.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DisplayableBookCounter {
+
+    private final BookCounterRepository bookCounterRepository;
+    private final BookRepository bookRepository;
+
+    @Transactional
+    public long get() {
+        return bookCounterRepository.findTotal(BookCounter.DISPLAYABLE)
+                .orElseGet(this::rebuild);
+    }
+
+    /**
+     * Records a book going from one displayable state to another, in the caller's transaction.
+     */
+    @Transactional
+    public void onChange(boolean wasDisplayable, boolean isDisplayable) {
+        long delta = (isDisplayable ? 1 : 0) - (wasDisplayable ? 1 : 0);
+        if (delta == 0) {
+            return;
+        }
+        if (bookCounterRepository.add(BookCounter.DISPLAYABLE, delta) == 0) {
+            // The COUNT sees the caller's pending book changes, so no delta is lost
+            rebuild();
+        }
+    }
+
+    @Transactional
+    public long rebuild() {
+        long total = bookRepository.countDisplayableBooks();
+        bookCounterRepository.save(new BookCounter(BookCounter.DISPLAYABLE, total));
+        log.info("Rebuilt the displayable book counter: {} books", total);
+        return total;
+    }
+}
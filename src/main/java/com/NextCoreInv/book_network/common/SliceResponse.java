@@ -0,0 +1,25 @@
+package com.NextCoreInv.book_network.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated counterpart of {@link PageResponse}: no totals are computed,
+ * the client follows {@code nextCursor} until {@code last} is true.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SliceResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean last;
+}
@@ -0,0 +1,102 @@
+package com.NextCoreInv.book_network.confg;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@Slf4j
+public class AsyncConfig {
+
+    /**
+     * Default executor of unqualified {@code @Async} methods. Declared here because the dedicated pools
+     * below make Spring Boot back off from its own one: a virtual thread per task when
+     * {@code spring.threads.virtual.enabled} is set on Java 21, the configured platform pool otherwise.
+     */
+    @Bean(name = {
+            TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+    })
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = {
+            TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+    })
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Platform threads for outgoing mail, whatever the threading mode: Jakarta Mail guards its SMTP
+     * connection with synchronized methods, which would pin the carrier of a virtual thread for the
+     * whole network exchange. Bounded: when the queue is full, emails wait in the outbox
+     * (see EmailDispatcher). Its queue and pool are published as executor.* metrics tagged name=mailExecutor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mailExecutor(
+            @Value("${application.mailing.pool-size:2}") int poolSize,
+            @Value("${application.mailing.queue-capacity:1000}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Bounded pool for cover rendition work: image decoding is CPU and memory heavy, so it must
+     * not grow with the number of uploads. When the queue is full the renditions are skipped
+     * and the original cover keeps being served.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor coverRenditionExecutor(
+            @Value("${application.book.cover.renditions.pool-size:2}") int poolSize,
+            @Value("${application.book.cover.renditions.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cover-rendition-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Cover rendition queue is full, renditions skipped"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Bounded pool hashing passwords (see OffloadingPasswordEncoder), one thread per core by default
+     * as BCrypt is pure CPU. When the queue is full, sign-ins and registrations are answered with a 503
+     * rather than stalling every request thread. Published as executor.* metrics tagged name=passwordHashingExecutor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${application.security.password.hashing.pool-size:0}") int poolSize,
+            @Value("${application.security.password.hashing.queue-capacity:100}") int queueCapacity
+    ) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+}
@@ -1,6 +1,10 @@
 package com.NextCoreInv.book_network.confg;
 
-import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.security.BCryptStrengthCalibrator;
+import com.NextCoreInv.book_network.security.OffloadingPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,21 +16,29 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor
 public class BeanConfig {
 
+    private static final String BCRYPT = "bcrypt";
+
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
 
     @Value("${FRONTEND_URL:http://localhost:4200}")
     private String frontendUrl;
@@ -35,10 +47,12 @@ public class BeanConfig {
     private String productionUrl;
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes the password on a successful login when its hash is weaker than the current strength
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -52,9 +66,30 @@ public class BeanConfig {
         return new ApplicationAuditAware();
     }
 
+    /**
+     * BCrypt at a strength calibrated at startup to {@code application.security.password.target-latency}
+     * (or pinned by {@code application.security.password.strength}), new hashes being prefixed with {bcrypt}.
+     * Hashes stored before the prefix existed are still matched, then upgraded on the next login.
+     * Hashing runs on the passwordHashingExecutor, away from the request threads.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${application.security.password.strength:0}") int strength,
+            @Value("${application.security.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${application.security.password.min-strength:10}") int minStrength,
+            @Value("${application.security.password.max-strength:14}") int maxStrength
+    ) {
+        int bcryptStrength = strength > 0
+                ? strength
+                : BCryptStrengthCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+        Gauge.builder("security.password.bcrypt.strength", () -> bcryptStrength)
+                .register(meterRegistry);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+                BCRYPT, Map.of(BCRYPT, new BCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new OffloadingPasswordEncoder(encoder, passwordHashingExecutor, meterRegistry);
     }
 
     @Bean
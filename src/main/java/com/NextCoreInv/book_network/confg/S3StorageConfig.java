@@ -0,0 +1,44 @@
+package com.NextCoreInv.book_network.confg;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+
+@Configuration
+@ConditionalOnProperty(name = "application.file.store.type", havingValue = "s3")
+public class S3StorageConfig {
+
+    /**
+     * Client of the cover bucket. Setting an endpoint points it at an S3-compatible server
+     * (MinIO, a local stand-in, ...); without access keys the default AWS credential chain is used.
+     */
+    @Bean(destroyMethod = "close")
+    public S3Client s3Client(
+            @Value("${application.file.store.s3.endpoint:}") String endpoint,
+            @Value("${application.file.store.s3.region:us-east-1}") String region,
+            @Value("${application.file.store.s3.access-key:}") String accessKey,
+            @Value("${application.file.store.s3.secret-key:}") String secretKey,
+            @Value("${application.file.store.s3.path-style-access:false}") boolean pathStyleAccess
+    ) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyleAccess)
+                .credentialsProvider(StringUtils.isBlank(accessKey)
+                        ? DefaultCredentialsProvider.create()
+                        : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        if (StringUtils.isNotBlank(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+}
@@ -1,28 +1,57 @@
 package com.NextCoreInv.book_network.email;
 
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 
+import java.time.Duration;
 import java.util.Properties;
 
 @Configuration
+@EnableConfigurationProperties(MailProperties.class)
 public class EmailConfig {
 
+    /**
+     * Mail sender configured from {@code spring.mail.*}, keeping its SMTP connections open between sends.
+     */
     @Bean
-    public JavaMailSender javaMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("localhost");  // MailHog host
-        mailSender.setPort(1025);         // MailHog port
+    public PooledJavaMailSender javaMailSender(
+            MailProperties mailProperties,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${application.mailing.smtp-pool.max-connections:2}") int maxConnections,
+            @Value("${application.mailing.smtp-pool.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${application.mailing.smtp-pool.borrow-timeout:10s}") Duration borrowTimeout
+    ) {
+        PooledJavaMailSender mailSender = new PooledJavaMailSender(maxConnections, idleTimeout, borrowTimeout);
+        mailSender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            mailSender.setPort(mailProperties.getPort());
+        }
+        mailSender.setUsername(mailProperties.getUsername());
+        mailSender.setPassword(mailProperties.getPassword());
+        mailSender.setProtocol(mailProperties.getProtocol());
+        mailSender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
 
         Properties props = mailSender.getJavaMailProperties();
-        props.put("mail.transport.protocol", "smtp");
-        props.put("mail.smtp.auth", "false");        // No auth for MailHog
-        props.put("mail.smtp.starttls.enable", "false"); // No TLS for MailHog
-        props.put("mail.debug", "true");             // Enable for debugging
+        // Bounded, so a stalled SMTP server fails the attempt and the outbox retries it
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "10000");
+        props.put("mail.smtp.writetimeout", "10000");
+        props.putAll(mailProperties.getProperties());
 
+        meterRegistry.ifAvailable(registry -> {
+            FunctionCounter.builder("email.smtp.connections.opened", mailSender, PooledJavaMailSender::getOpenedConnections)
+                    .register(registry);
+            Gauge.builder("email.smtp.connections.idle", mailSender, PooledJavaMailSender::getIdleConnections)
+                    .register(registry);
+        });
         return mailSender;
     }
 }
@@ -0,0 +1,225 @@
+package com.NextCoreInv.book_network.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the emails of the outbox on the bounded mail executor: right after the transaction that
+ * queued them commits, then by polling for the ones that failed or did not fit in the in-memory queue.
+ * Queued emails are drained in batches, each sent over one pooled SMTP connection, by at most one
+ * drainer per connection. Failed attempts are retried with exponential backoff until
+ * {@code max-attempts} is reached.
+ */
+@Component
+@Slf4j
+public class EmailDispatcher {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final TaskExecutor mailExecutor;
+    private final BlockingQueue<Integer> queuedIds;
+    private final AtomicInteger drainers = new AtomicInteger();
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+
+    @Value("${application.mailing.outbox.batch-size:50}")
+    private int batchSize;
+    @Value("${application.mailing.outbox.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${application.mailing.outbox.initial-backoff:30s}")
+    private Duration initialBackoff;
+    @Value("${application.mailing.outbox.max-backoff:1h}")
+    private Duration maxBackoff;
+    // Longer than any SMTP exchange can last, so a lease only expires if its node died mid-delivery
+    @Value("${application.mailing.outbox.lease:5m}")
+    private Duration lease;
+    @Value("${application.mailing.smtp-pool.max-connections:2}")
+    private int maxDrainers;
+
+    public EmailDispatcher(
+            EmailOutboxRepository outboxRepository,
+            EmailService emailService,
+            @Qualifier("mailExecutor") TaskExecutor mailExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${application.mailing.queue-capacity:1000}") int queueCapacity
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.mailExecutor = mailExecutor;
+        this.queuedIds = new LinkedBlockingQueue<>(queueCapacity);
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.retried = outcomeCounter(meterRegistry, "retried");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+        this.batchSizes = DistributionSummary.builder("email.outbox.batch.size").register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onEmailQueued(EmailQueuedEvent event) {
+        if (enqueue(event.emailId())) {
+            startDrainer();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.mailing.outbox.poll-interval:PT30S}")
+    public void dispatchDueEmails() {
+        List<Integer> dueIds = outboxRepository.findDueIds(LocalDateTime.now(), PageRequest.ofSize(batchSize));
+        for (Integer emailId : dueIds) {
+            if (!enqueue(emailId)) {
+                break;
+            }
+        }
+        startDrainer();
+    }
+
+    /**
+     * Sends the emails of a batch that are still due, and records the outcome on their outbox rows.
+     */
+    void dispatch(List<Integer> emailIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> claimedIds = emailIds.stream()
+                .filter(emailId -> outboxRepository.claim(emailId, now, now.plus(lease)) == 1)
+                .toList(); // the others are already sent, or taken by another delivery
+        if (claimedIds.isEmpty()) {
+            return;
+        }
+        List<EmailOutbox> emails = outboxRepository.findAllById(claimedIds);
+
+        Map<EmailOutbox, Exception> failures = new HashMap<>();
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        for (EmailOutbox email : emails) {
+            try {
+                messages.put(emailService.prepare(email), email);
+            } catch (MessagingException | RuntimeException e) {
+                failures.put(email, e);
+            }
+        }
+        if (!messages.isEmpty()) {
+            batchSizes.record(messages.size());
+            try {
+                emailService.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(email -> failures.put(email, e));
+                } else {
+                    e.getFailedMessages().forEach((message, cause) -> failures.put(messages.get(message), cause));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(email -> failures.put(email, e));
+            }
+        }
+
+        for (EmailOutbox email : emails) {
+            Exception failure = failures.get(email);
+            if (failure == null) {
+                email.setStatus(EmailOutboxStatus.SENT);
+                email.setSentAt(LocalDateTime.now());
+                sent.increment();
+            } else {
+                recordFailure(email, failure);
+            }
+        }
+        outboxRepository.saveAll(emails);
+    }
+
+    // initialBackoff, doubled after every failed attempt, up to maxBackoff
+    Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration backoff = initialBackoff.multipliedBy(1L << doublings);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void recordFailure(EmailOutbox email, Exception failure) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(StringUtils.abbreviate(failure.getMessage(), 1000));
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutboxStatus.FAILED);
+            failed.increment();
+            log.error("Giving up on email {} to: {} after {} attempts", email.getId(), email.getRecipient(), attempts, failure);
+        } else {
+            Duration backoff = backoff(attempts);
+            email.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+            retried.increment();
+            log.warn("Failed to send email {} to: {}, retrying in {}: {}", email.getId(), email.getRecipient(), backoff, failure.getMessage());
+        }
+    }
+
+    private boolean enqueue(Integer emailId) {
+        if (queuedIds.offer(emailId)) {
+            return true;
+        }
+        // Back pressure: the email stays due in the outbox and a later poll picks it up
+        log.debug("Mail queue is full, email {} left in the outbox", emailId);
+        return false;
+    }
+
+    private void startDrainer() {
+        int running;
+        while ((running = drainers.get()) < maxDrainers) {
+            if (drainers.compareAndSet(running, running + 1)) {
+                try {
+                    mailExecutor.execute(this::drain);
+                } catch (TaskRejectedException e) {
+                    drainers.decrementAndGet();
+                    log.debug("Mail executor is full, queued emails wait for a running drainer or the next poll");
+                }
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            List<Integer> batch = new ArrayList<>(batchSize);
+            while (queuedIds.drainTo(batch, batchSize) > 0) {
+                try {
+                    dispatch(batch);
+                } catch (RuntimeException e) {
+                    // Unclaimed emails stay due, claimed ones are picked up again once their lease expires
+                    log.error("Failed to dispatch emails {}", batch, e);
+                }
+                batch.clear();
+            }
+        } finally {
+            drainers.decrementAndGet();
+        }
+        // An email queued while this drainer was finishing would otherwise wait for the next poll
+        if (!queuedIds.isEmpty()) {
+            startDrainer();
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("email.outbox.deliveries")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.NextCoreInv.book_network.email;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Integer> {
+
+    // Served by the partial index ix_email_outbox_due
+    @Query("""
+        SELECT email.id
+        FROM EmailOutbox email
+        WHERE email.status = com.NextCoreInv.book_network.email.EmailOutboxStatus.PENDING
+        AND email.nextAttemptAt <= :now
+        ORDER BY email.nextAttemptAt
+        """)
+    List<Integer> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Takes a due email for one delivery attempt: only one caller, on any node, gets 1 back
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE EmailOutbox email
+        SET email.nextAttemptAt = :leaseUntil
+        WHERE email.id = :id
+        AND email.status = com.NextCoreInv.book_network.email.EmailOutboxStatus.PENDING
+        AND email.nextAttemptAt <= :now
+        """)
+    int claim(@Param("id") Integer id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
@@ -0,0 +1,7 @@
+package com.NextCoreInv.book_network.email;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.NextCoreInv.book_network.email;
+
+/**
+ * Published when an email is written to the outbox, to attempt its delivery once the transaction commits.
+ *
+ * @param emailId the outbox row to deliver
+ */
+public record EmailQueuedEvent(Integer emailId) {
+}
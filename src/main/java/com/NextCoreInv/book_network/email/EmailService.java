@@ -2,21 +2,20 @@ package com.NextCoreInv.book_network.email;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static org.springframework.mail.javamail.MimeMessageHelper.MULTIPART_MODE_MIXED;
 
 @Service
 @Slf4j
@@ -24,12 +23,18 @@ import static org.springframework.mail.javamail.MimeMessageHelper.MULTIPART_MODE
 public class EmailService {
 
     private final JavaMailSender mailSender;
-    private final SpringTemplateEngine templateEngine;
+    private final EmailTemplateRenderer templateRenderer;
+    private final EmailOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${spring.mail.username:noreply@yourdomain.com}")
     private String fromEmail;
 
-    @Async
+    /**
+     * Queues an email in the outbox, as part of the caller's transaction. It is handed to
+     * {@link EmailDispatcher} once that transaction commits, and retried until delivered.
+     */
+    @Transactional
     public void sendEmail(
             String to,
             String username,
@@ -37,42 +42,50 @@ public class EmailService {
             String confirmationUrl,
             String activationCode,
             String subject
-    ) throws MessagingException {
-        try {
-            log.info("Starting to send email to: {}", to);
-
-            String templateName = emailTemplate == null ? "confirm-email" : emailTemplate.name();
-            log.debug("Using template: {}", templateName);
-
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(
-                    mimeMessage,
-                    MULTIPART_MODE_MIXED,
-                    UTF_8.name()
-            );
-
-            Map<String, Object> properties = new HashMap<>();
-            properties.put("username", username);
-            properties.put("confirmationUrl", confirmationUrl);
-            properties.put("activation_code", activationCode);
-
-            Context context = new Context();
-            context.setVariables(properties);
-
-            helper.setFrom(fromEmail);  // Use configured email from application.yml
-            helper.setTo(to);
-            helper.setSubject(subject);
+    ) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox email = outboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .username(username)
+                .template(emailTemplate)
+                .confirmationUrl(confirmationUrl)
+                .activationCode(activationCode)
+                .subject(subject)
+                .status(EmailOutboxStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        log.info("Queued {} email {} to: {}", emailTemplate, email.getId(), to);
+        eventPublisher.publishEvent(new EmailQueuedEvent(email.getId()));
+    }
 
-            String template = templateEngine.process(templateName, context);
-            helper.setText(template, true);
+    /**
+     * Renders an outbox email into a message ready to be sent.
+     */
+    MimeMessage prepare(EmailOutbox email) throws MessagingException {
+        String html = templateRenderer.render(email.getTemplate(), Map.of(
+                "username", StringUtils.defaultString(email.getUsername()),
+                "confirmationUrl", StringUtils.defaultString(email.getConfirmationUrl()),
+                "activation_code", StringUtils.defaultString(email.getActivationCode())
+        ));
 
-            log.debug("Attempting to send email...");
-            mailSender.send(mimeMessage);
-            log.info("Email sent successfully to: {}", to);
+        // A single HTML part: no multipart wrapper unless there is something to attach
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, false, UTF_8.name());
+        helper.setFrom(fromEmail);  // Use configured email from application.yml
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(html, true);
+        return mimeMessage;
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to send email to: {}", to, e);
-            throw e;
-        }
+    /**
+     * Sends a batch of messages over a single SMTP connection, on the calling thread.
+     *
+     * @throws org.springframework.mail.MailSendException listing the messages that could not be sent
+     */
+    void send(MimeMessage... mimeMessages) {
+        log.debug("Sending {} emails", mimeMessages.length);
+        mailSender.send(mimeMessages);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.NextCoreInv.book_network.email;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.cache.StandardCacheManager;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Renders the email templates with an engine of its own, separate from the one serving web pages.
+ * Every {@link EmailTemplateName} is parsed once at startup and then kept in a template cache sized
+ * for them, so a send only evaluates the few dynamic expressions over the already parsed markup.
+ * Render time and rendered size are recorded per template.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRenderer {
+
+    private final SpringTemplateEngine templateEngine;
+    private final Map<EmailTemplateName, Timer> renderTimers = new EnumMap<>(EmailTemplateName.class);
+    private final Map<EmailTemplateName, DistributionSummary> renderedSizes = new EnumMap<>(EmailTemplateName.class);
+
+    public EmailTemplateRenderer(
+            MeterRegistry meterRegistry,
+            @Value("${application.mailing.templates.cache-size:16}") int cacheSize,
+            @Value("${application.mailing.templates.expression-cache-size:200}") int expressionCacheSize
+    ) {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(UTF_8.name());
+        templateResolver.setCacheable(true);
+        templateResolver.setCacheTTLMs(null); // templates ship with the jar: never re-parse them
+
+        StandardCacheManager cacheManager = new StandardCacheManager();
+        cacheManager.setTemplateCacheMaxSize(cacheSize);
+        cacheManager.setExpressionCacheMaxSize(expressionCacheSize);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setCacheManager(cacheManager);
+
+        for (EmailTemplateName template : EmailTemplateName.values()) {
+            renderTimers.put(template, Timer.builder("email.template.render")
+                    .tag("template", template.getName())
+                    .register(meterRegistry));
+            renderedSizes.put(template, DistributionSummary.builder("email.template.size")
+                    .tag("template", template.getName())
+                    .baseUnit("bytes")
+                    .register(meterRegistry));
+        }
+    }
+
+    // Parses every template up front, so the first registrations after a deploy do not pay for it
+    @PostConstruct
+    void warmUp() {
+        long start = System.nanoTime();
+        for (EmailTemplateName template : EmailTemplateName.values()) {
+            templateEngine.process(template.getName(), new Context());
+        }
+        log.info("Parsed {} email templates in {} ms", EmailTemplateName.values().length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public String render(EmailTemplateName template, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        String html = renderTimers.get(template).record(() -> templateEngine.process(template.getName(), context));
+        renderedSizes.get(template).record(html.getBytes(UTF_8).length);
+        return html;
+    }
+
+    int cachedTemplates() {
+        return templateEngine.getCacheManager().getTemplateCache().keySet().size();
+    }
+}
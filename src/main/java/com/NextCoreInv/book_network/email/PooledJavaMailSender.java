@@ -0,0 +1,189 @@
+package com.NextCoreInv.book_network.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps its SMTP connections open between sends instead of opening
+ * (and authenticating, and negotiating STARTTLS on) a new one per call. At most {@code maxConnections}
+ * are open at once; a connection left unused for {@code idleTimeout} is closed, before the server
+ * drops it on its side. Every batch given to {@link #send(MimeMessage...)} goes through one connection.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idleTransports = new ConcurrentLinkedDeque<>();
+    private final Duration idleTimeout;
+    private final Duration borrowTimeout;
+    private final AtomicLong openedConnections = new AtomicLong();
+
+    public PooledJavaMailSender(int maxConnections, Duration idleTimeout, Duration borrowTimeout) {
+        this.permits = new Semaphore(maxConnections, true);
+        this.idleTimeout = idleTimeout;
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport pooled;
+        try {
+            pooled = borrow();
+        } catch (AuthenticationFailedException ex) {
+            throw new MailAuthenticationException(ex);
+        } catch (Exception ex) {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                failedMessages.put(original(mimeMessages, originalMessages, i), ex);
+            }
+            throw new MailSendException("Mail server connection failed", ex, failedMessages);
+        }
+
+        boolean reusable = true;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                Object original = original(mimeMessages, originalMessages, i);
+                if (!reusable) {
+                    failedMessages.put(original, new MessagingException("SMTP connection lost earlier in the batch"));
+                    continue;
+                }
+                try {
+                    send(pooled.transport, mimeMessages[i]);
+                } catch (SendFailedException ex) {
+                    // Rejected recipients: the session itself is still usable
+                    failedMessages.put(original, ex);
+                } catch (MessagingException ex) {
+                    failedMessages.put(original, ex);
+                    reusable = false;
+                }
+            }
+        } finally {
+            release(pooled, reusable);
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Closes the connections that have been idle for longer than the idle timeout.
+     */
+    @Scheduled(fixedDelayString = "${application.mailing.smtp-pool.eviction-interval:PT30S}")
+    public void evictIdleConnections() {
+        long now = System.nanoTime();
+        idleTransports.removeIf(pooled -> {
+            if (now - pooled.lastUsed < idleTimeout.toNanos()) {
+                return false;
+            }
+            close(pooled);
+            return true;
+        });
+    }
+
+    public long getOpenedConnections() {
+        return openedConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idleTransports.size();
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport pooled;
+        while ((pooled = idleTransports.poll()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException, InterruptedException {
+        if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new MessagingException("No SMTP connection available within " + borrowTimeout);
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = idleTransports.pollFirst()) != null) {
+                // isConnected() sends a NOOP, so a connection the server dropped is noticed here
+                if (System.nanoTime() - pooled.lastUsed < idleTimeout.toNanos() && pooled.transport.isConnected()) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            Transport transport = connectTransport();
+            openedConnections.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (MessagingException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    private void release(PooledTransport pooled, boolean reusable) {
+        if (reusable) {
+            pooled.lastUsed = System.nanoTime();
+            idleTransports.offerFirst(pooled);
+        } else {
+            close(pooled);
+        }
+        permits.release();
+    }
+
+    // Same message preparation as JavaMailSenderImpl#doSend
+    private static void send(Transport transport, MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Preserve explicitly specified message id...
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+        Address[] addresses = mimeMessage.getAllRecipients();
+        transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+    }
+
+    private static Object original(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages, int index) {
+        return originalMessages != null ? originalMessages[index] : mimeMessages[index];
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException ex) {
+            log.debug("Could not close SMTP connection: {}", ex.getMessage());
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -25,6 +25,7 @@ public class FeedbackService {
     private final BookRepository bookRepository;
     private final FeedbackMapper feedbackMapper;
 
+    @Transactional
     public Integer save(FeedbackRequest request, Authentication connectedUser) {
         Book book = bookRepository.findById(request.bookId())
                 .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + request.bookId()));
@@ -36,7 +37,12 @@ public class FeedbackService {
             throw new OperationNotPermittedExeption("You cannot give feedback to your own book");
         }
         Feedback feedback = feedbackMapper.toFeedback(request);
-        return feedBackRepository.save(feedback).getId();
+        Integer feedbackId = feedBackRepository.save(feedback).getId();
+        if (request.note() != null) {
+            // Keep the denormalized rating on Book in sync within the same transaction
+            bookRepository.addRating(book.getId(), request.note());
+        }
+        return feedbackId;
     }
 
     @Transactional
@@ -0,0 +1,113 @@
+package com.NextCoreInv.book_network.file;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Keeps the content of frequently served covers in memory, bounded by total bytes.
+ * Entries are keyed by location, modification time and size, so a rewritten cover is never served stale.
+ * Content is held in direct buffers by default, outside the garbage collected heap.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CoverCache {
+
+    private static final String CACHE_NAME = "bookCovers";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${application.book.cover.cache.enabled:true}")
+    private boolean enabled;
+    @Value("${application.book.cover.cache.max-size:64MB}")
+    private DataSize maxSize;
+    @Value("${application.book.cover.cache.max-entry-size:2MB}")
+    private DataSize maxEntrySize;
+    @Value("${application.book.cover.cache.off-heap:true}")
+    private boolean offHeap;
+
+    private Cache<CoverKey, ByteBuffer> covers;
+
+    @PostConstruct
+    void init() {
+        covers = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((CoverKey key, ByteBuffer content) -> content.capacity())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, covers, CACHE_NAME);
+            Gauge.builder("cache.resident.bytes", covers, cache -> cache.policy().eviction()
+                            .map(eviction -> eviction.weightedSize().orElse(0L))
+                            .orElse(0L))
+                    .tag("cache", CACHE_NAME)
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("cache.hit.ratio", covers, cache -> cache.stats().hitRate())
+                    .tag("cache", CACHE_NAME)
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Returns the cover content from memory, reading it once on a miss. Covers larger than the
+     * entry limit, or when the cache is disabled, are returned as is and streamed from the store.
+     */
+    public Resource load(Resource cover) {
+        if (!enabled) {
+            return cover;
+        }
+        try {
+            long size = cover.contentLength();
+            if (size > maxEntrySize.toBytes()) {
+                return cover;
+            }
+            long lastModified = cover.lastModified();
+            CoverKey key = new CoverKey(cover.getDescription(), lastModified, size);
+            // Read outside of Caffeine's compute, which holds a map lock (and pins a virtual thread) for the whole load.
+            // Concurrent misses may read the same cover twice; the last one wins.
+            ByteBuffer content = covers.getIfPresent(key);
+            if (content == null) {
+                content = read(cover, key);
+                covers.put(key, content);
+            }
+            return new ByteBufferResource(content, cover.getFilename(), lastModified);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not cache {}: {}", cover.getDescription(), e.getMessage());
+            return cover;
+        }
+    }
+
+    private ByteBuffer read(Resource cover, CoverKey key) {
+        int size = Math.toIntExact(key.size());
+        ByteBuffer content = offHeap ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        try (ReadableByteChannel channel = Channels.newChannel(cover.getInputStream())) {
+            while (content.hasRemaining() && channel.read(content) != -1) {
+                // keep reading until the buffer is full
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return content.flip();
+    }
+
+    private record CoverKey(String location, long lastModified, long size) {
+    }
+}
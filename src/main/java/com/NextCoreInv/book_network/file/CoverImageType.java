@@ -0,0 +1,54 @@
+package com.NextCoreInv.book_network.file;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Image formats accepted as book covers, recognised from their leading bytes. The client's file name
+ * and Content-Type are never trusted: the stored extension, and so the Content-Type the cover is later
+ * served with, comes from the detected format.
+ */
+public enum CoverImageType {
+
+    JPEG("jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+    PNG("png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+    // RIFF container, 4 bytes of chunk size, then the WEBP form type
+    WEBP("webp", new byte[]{'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P'});
+
+    /**
+     * Number of leading bytes needed by {@link #detect(byte[])}.
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private final String extension;
+    private final byte[] signature;
+
+    CoverImageType(String extension, byte[] signature) {
+        this.extension = extension;
+        this.signature = signature;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static Optional<CoverImageType> detect(byte[] header) {
+        return Arrays.stream(values())
+                .filter(type -> type.matches(header))
+                .findFirst();
+    }
+
+    private boolean matches(byte[] header) {
+        if (header.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            // The RIFF chunk size varies with the file
+            boolean sizeByte = this == WEBP && i >= 4 && i < 8;
+            if (!sizeByte && header[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
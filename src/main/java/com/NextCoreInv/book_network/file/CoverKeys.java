@@ -0,0 +1,37 @@
+package com.NextCoreInv.book_network.file;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Content-addressed storage keys: {@code covers/<h0h1>/<h2h3>/<sha256>.<ext>}. The two hash-prefixed
+ * directory levels keep every directory (or key prefix) small however many covers are stored.
+ */
+public final class CoverKeys {
+
+    public static final String PREFIX = "covers/";
+
+    private CoverKeys() {
+    }
+
+    public static String forContent(String sha256Hex, String extension) {
+        return PREFIX + sha256Hex.substring(0, 2) + "/" + sha256Hex.substring(2, 4) + "/" + sha256Hex
+                + (StringUtils.isBlank(extension) ? "" : "." + extension);
+    }
+
+    /**
+     * Key of a JPEG rendition stored next to the cover, named {@code <cover name>-<suffix>.jpg}.
+     */
+    public static String forRendition(String key, String suffix) {
+        int lastSlash = key.lastIndexOf('/');
+        int lastDot = key.lastIndexOf('.');
+        String base = lastDot > lastSlash ? key.substring(0, lastDot) : key;
+        return base + "-" + suffix + ".jpg";
+    }
+
+    /**
+     * Covers uploaded before storage keys existed were recorded as filesystem paths.
+     */
+    public static boolean isLegacyPath(String key) {
+        return !key.startsWith(PREFIX);
+    }
+}
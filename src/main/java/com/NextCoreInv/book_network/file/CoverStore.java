@@ -0,0 +1,27 @@
+package com.NextCoreInv.book_network.file;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where cover files live. Covers are addressed by a storage key (see {@link CoverKeys}) rather
+ * than a filesystem path, so every API node resolves the same key to the same content.
+ */
+public interface CoverStore {
+
+    boolean exists(String key);
+
+    /**
+     * Stores a staged local file under the key. The staged file is consumed: it is moved or
+     * uploaded, then removed. Storing an existing key keeps the stored content, since keys are
+     * named after their content.
+     */
+    void put(String key, Path stagedFile) throws IOException;
+
+    /**
+     * @return the stored content, or null when nothing is stored under the key
+     */
+    Resource load(String key);
+}
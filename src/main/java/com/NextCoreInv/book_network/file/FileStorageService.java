@@ -1,22 +1,26 @@
 package com.NextCoreInv.book_network.file;
 
-import com.NextCoreInv.book_network.book.Book;
+import com.NextCoreInv.book_network.Exception.OperationNotPermittedExeption;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-
-import static java.io.File.separator;
-import static java.lang.System.currentTimeMillis;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 @Service
 @Slf4j
@@ -25,52 +29,86 @@ public class FileStorageService {
     @Value("${application.file.upload.photos-output-path}")
     private String fileUploadingPath;
 
+    private final CoverStore coverStore;
 
-    public String saveFile(
-            @NotNull  MultipartFile sourceFile,
-            @NotNull  Integer userId) {
 
-            final String fileUploadSubPath = "users"+ separator + userId;
-            return uploadFile(sourceFile,fileUploadSubPath);
+    /**
+     * Stores an uploaded cover in the cover store. Only JPEG, PNG and WebP images are accepted,
+     * recognised from their content, which also gives the extension of the stored file.
+     *
+     * @return the storage key of the file, or null when it could not be stored
+     * @throws OperationNotPermittedExeption when the content is not one of the accepted images
+     */
+    public String saveFile(@NotNull MultipartFile sourceFile) {
+        // Stream into a staged file while hashing, so the upload never sits on the heap
+        Path tempPath = null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            CoverImageType type;
+            try (InputStream in = new DigestInputStream(sourceFile.getInputStream(), digest)) {
+                byte[] header = in.readNBytes(CoverImageType.HEADER_LENGTH);
+                type = CoverImageType.detect(header)
+                        .orElseThrow(() -> new OperationNotPermittedExeption("Only JPEG, PNG and WebP images are accepted as covers"));
+                tempPath = createStagedFile("upload-");
+                try (OutputStream out = Files.newOutputStream(tempPath)) {
+                    out.write(header);
+                    in.transferTo(out);
+                }
+            }
 
+            // Content-addressed key: identical uploads share one file and concurrent ones cannot collide
+            String key = CoverKeys.forContent(HexFormat.of().formatHex(digest.digest()), type.getExtension());
+            coverStore.put(key, tempPath);
+            return key;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.error("File was not saved to the cover store\n" + e.getMessage());
+            deleteQuietly(tempPath);
+        }
+        return null;
     }
 
-    private String uploadFile(
-            @NotNull MultipartFile sourceFile,
-            @NotNull String fileUploadSubPath
-    ) {
-        final String finalUploadingPath = fileUploadingPath + separator + fileUploadSubPath;
-        File targetFolder = new File(finalUploadingPath);
-        if(!targetFolder.exists()) {
-            boolean folderCreated = targetFolder.mkdirs();
-            if(!folderCreated) {
-                log.warn("Could not create folder " + targetFolder.getAbsolutePath());
-                return null;
-
-            }
+    /**
+     * Stores a scaled-down JPEG copy of a cover next to it, unless that rendition already exists.
+     *
+     * @return the storage key of the rendition
+     */
+    public String saveRendition(String key, String suffix, BufferedImage image, int maxSize) throws IOException {
+        String renditionKey = CoverKeys.forRendition(key, suffix);
+        if (coverStore.exists(renditionKey)) {
+            return renditionKey;
         }
-        final String fileExtension =getFileExtention(sourceFile.getOriginalFilename());
-
-        String targetFilePath = finalUploadingPath + separator + currentTimeMillis() + "."+ fileExtension;
-        Path targetPath = Paths.get(targetFilePath);
+        Path tempPath = createStagedFile("rendition-");
         try {
-            Files.write(targetPath,sourceFile.getBytes());
-            log.info("File saved to " + targetFilePath);
-            return targetFilePath;
-        } catch (IOException e) {
-            log.error("File wa snot saved to " + targetFilePath+"/n"+e.getMessage());
+            ImageRenditions.writeScaled(image, tempPath, maxSize);
+            coverStore.put(renditionKey, tempPath);
+        } finally {
+            deleteQuietly(tempPath);
         }
-        return null;
+        return renditionKey;
+    }
+
+    /**
+     * @return the stored file, or null when there is none under the key
+     */
+    public Resource loadFile(String key) {
+        return StringUtils.isBlank(key) ? null : coverStore.load(key);
     }
 
-    private String getFileExtention(String filename) {
-        if(filename==null||filename.isEmpty()){
-            return null;
+    // Staged files are kept under the upload folder, so the local store can move them into place atomically
+    private Path createStagedFile(String prefix) throws IOException {
+        Path stagingFolder = Paths.get(fileUploadingPath, "staging");
+        Files.createDirectories(stagingFolder);
+        return Files.createTempFile(stagingFolder, prefix, ".tmp");
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
         }
-        int lastIndex = filename.lastIndexOf(".");
-        if(lastIndex==-1){
-            return "";
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file " + path);
         }
-        return filename.substring(lastIndex+1).toLowerCase();
     }
 }
@@ -2,6 +2,7 @@ package com.NextCoreInv.book_network.file;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.FileSystemResource;
 
 import java.io.File;
 import java.io.IOException;
@@ -23,4 +24,20 @@ public class FileUtils {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves a stored file as a resource that can be streamed straight from disk,
+     * without loading its content on the heap.
+     */
+    public static FileSystemResource loadFileAsResource(String fileUrl) {
+        if (StringUtils.isBlank(fileUrl)) {
+            return null;
+        }
+        FileSystemResource resource = new FileSystemResource(fileUrl);
+        if (!resource.isReadable()) {
+            log.warn("No readable file found in the path {}", fileUrl);
+            return null;
+        }
+        return resource;
+    }
+}
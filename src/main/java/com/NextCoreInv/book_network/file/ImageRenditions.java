@@ -0,0 +1,73 @@
+package com.NextCoreInv.book_network.file;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+
+@Slf4j
+public class ImageRenditions {
+
+    /**
+     * Decodes a stored image, or returns null when it is not an image ImageIO can read or when it is
+     * larger than {@code maxDimension} on a side. The size is read from the image header, so an
+     * oversized image (a decompression bomb) is turned down before any pixel buffer is allocated.
+     */
+    public static BufferedImage readImage(Resource source, int maxDimension) throws IOException {
+        try (InputStream in = source.getInputStream();
+             ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = imageIn == null ? Collections.emptyIterator() : ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                log.warn("No readable image found in {}", source.getDescription());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width > maxDimension || height > maxDimension) {
+                    log.warn("Image of {}x{} in {} exceeds {} pixels a side, not decoded",
+                            width, height, source.getDescription(), maxDimension);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Writes a JPEG copy of the image scaled down to fit in a {@code maxSize} square to the target
+     * file. Smaller images are not upscaled.
+     */
+    public static void writeScaled(BufferedImage image, Path target, int maxSize) throws IOException {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // JPEG has no alpha channel: draw onto an opaque RGB canvas
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        ImageIO.write(scaled, "jpg", target.toFile());
+    }
+}
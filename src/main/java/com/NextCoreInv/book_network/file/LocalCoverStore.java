@@ -0,0 +1,57 @@
+package com.NextCoreInv.book_network.file;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores covers on the local filesystem under {@code application.file.upload.photos-output-path},
+ * one file per key. Suitable for a single node, or several nodes sharing a network volume.
+ */
+@Component
+@ConditionalOnProperty(name = "application.file.store.type", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalCoverStore implements CoverStore {
+
+    private final Path root;
+
+    public LocalCoverStore(@Value("${application.file.upload.photos-output-path}") String root) {
+        this.root = Paths.get(root);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void put(String key, Path stagedFile) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target)) {
+            Files.delete(stagedFile);
+            log.info("File already stored at " + target);
+            return;
+        }
+        // Staged files live under the same root, so the move is a rename and readers never see a partial file
+        Files.move(stagedFile, target, StandardCopyOption.ATOMIC_MOVE);
+        log.info("File saved to " + target);
+    }
+
+    @Override
+    public Resource load(String key) {
+        return FileUtils.loadFileAsResource(resolve(key).toString());
+    }
+
+    private Path resolve(String key) {
+        return CoverKeys.isLegacyPath(key) ? Paths.get(key) : root.resolve(key);
+    }
+}
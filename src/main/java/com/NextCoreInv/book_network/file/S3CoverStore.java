@@ -0,0 +1,85 @@
+package com.NextCoreInv.book_network.file;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stores covers as objects of an S3-compatible bucket (AWS S3, MinIO, ...), so that every API node
+ * serves the same covers. The object key is the storage key.
+ */
+@Component
+@ConditionalOnProperty(name = "application.file.store.type", havingValue = "s3")
+@Slf4j
+public class S3CoverStore implements CoverStore {
+
+    private final S3Client s3Client;
+    private final String bucket;
+
+    public S3CoverStore(S3Client s3Client, @Value("${application.file.store.s3.bucket}") String bucket) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return head(key) != null;
+    }
+
+    @Override
+    public void put(String key, Path stagedFile) throws IOException {
+        try {
+            if (exists(key)) {
+                log.info("File already stored at s3://{}/{}", bucket, key);
+                return;
+            }
+            String contentType = MediaTypeFactory.getMediaType(key)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                    .toString();
+            s3Client.putObject(request -> request.bucket(bucket).key(key).contentType(contentType),
+                    RequestBody.fromFile(stagedFile));
+            log.info("File saved to s3://{}/{}", bucket, key);
+        } catch (S3Exception e) {
+            throw new IOException("Could not store s3://" + bucket + "/" + key, e);
+        } finally {
+            Files.deleteIfExists(stagedFile);
+        }
+    }
+
+    @Override
+    public Resource load(String key) {
+        if (CoverKeys.isLegacyPath(key)) {
+            log.warn("Cover {} was stored on a local disk and is not available from S3", key);
+            return null;
+        }
+        HeadObjectResponse head = head(key);
+        if (head == null) {
+            log.warn("No object found at s3://{}/{}", bucket, key);
+            return null;
+        }
+        return new S3ObjectResource(s3Client, bucket, key, head.contentLength(), head.lastModified().toEpochMilli());
+    }
+
+    private HeadObjectResponse head(String key) {
+        try {
+            return s3Client.headObject(request -> request.bucket(bucket).key(key));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+}
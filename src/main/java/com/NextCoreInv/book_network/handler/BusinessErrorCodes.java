@@ -7,6 +7,9 @@ import org.springframework.http.HttpStatus;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_IMPLEMENTED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 public enum BusinessErrorCodes {
     NO_CODE(0, NOT_IMPLEMENTED, "No code"),
@@ -15,6 +18,9 @@ public enum BusinessErrorCodes {
     ACCOUNT_LOCKED(302, FORBIDDEN, "User account is locked"),
     ACCOUNT_DISABLED(303, FORBIDDEN, "User account is disabled"),
     BAD_CREDENTIALS(304, FORBIDDEN, "Login and / or Password is incorrect"),
+    SERVER_BUSY(305, SERVICE_UNAVAILABLE, "The server is busy, please retry shortly"),
+    TOO_MANY_LOGIN_ATTEMPTS(306, TOO_MANY_REQUESTS, "Too many login attempts, please retry later"),
+    INVALID_REFRESH_TOKEN(307, UNAUTHORIZED, "Refresh token is invalid or expired"),
     ;
 
     @Getter
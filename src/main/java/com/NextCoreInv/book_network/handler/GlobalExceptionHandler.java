@@ -1,7 +1,10 @@
 package com.NextCoreInv.book_network.handler;
 
+import com.NextCoreInv.book_network.Exception.InvalidRefreshTokenException;
 import com.NextCoreInv.book_network.Exception.OperationNotPermittedExeption;
 import jakarta.mail.MessagingException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -19,6 +22,7 @@ import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -63,6 +67,33 @@ public class GlobalExceptionHandler {
                 );
     }
 
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ExceptionResponse> handleException(InvalidRefreshTokenException exp) {
+        return ResponseEntity
+                .status(UNAUTHORIZED)
+                .body(
+                        ExceptionResponse.builder()
+                                .businessErrorCode(INVALID_REFRESH_TOKEN.getCode())
+                                .businessErrorDescription(INVALID_REFRESH_TOKEN.getDescription())
+                                .error(exp.getMessage())
+                                .build()
+                );
+    }
+
+    // A bounded pool (e.g. password hashing) is saturated: the client is asked to come back instead of waiting
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ExceptionResponse> handleException(TaskRejectedException exp) {
+        return ResponseEntity
+                .status(SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(
+                        ExceptionResponse.builder()
+                                .businessErrorCode(SERVER_BUSY.getCode())
+                                .businessErrorDescription(SERVER_BUSY.getDescription())
+                                .build()
+                );
+    }
+
     @ExceptionHandler(MessagingException.class)
     public ResponseEntity<ExceptionResponse> handleException(MessagingException exp) {
         return ResponseEntity
@@ -30,4 +30,9 @@ public class BookTransactionHistory extends BaseEntity {
 
     private boolean returned;
     private boolean returnApproved;
+
+    // Holds the book ID while the loan is open and is cleared once the return is approved,
+    // so the unique constraint allows at most one open loan per book.
+    @Column(unique = true)
+    private Integer activeBookId;
 }
@@ -1,11 +1,16 @@
 package com.NextCoreInv.book_network.history;
 
+import com.NextCoreInv.book_network.book.BorrowedBookView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable; // <-- Import the correct Pageable!
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -43,30 +48,113 @@ public interface BookTransactionHistoryRepository extends JpaRepository<BookTran
     boolean isAlreadyBorrowed(@Param("bookId") Integer bookId);
 
     /**
-     * Retrieves a paginated list of all borrowed books by a specific user.
+     * Retrieves a paginated list of all borrowed books by a specific user,
+     * projected together with the book columns in a single query.
      */
-    @Query("""
-            SELECT history
+    @Query(value = """
+            SELECT new com.NextCoreInv.book_network.book.BorrowedBookView(
+                book.id, book.title, book.authorName, book.isbn,
+                book.ratingSum, book.ratingCount, history.returned, history.returnApproved,
+                history.id, history.createdDate
+            )
+            FROM BookTransactionHistory history
+            JOIN history.book book
+            WHERE history.user.id = :userId
+            """,
+            countQuery = """
+            SELECT COUNT(history)
             FROM BookTransactionHistory history
             WHERE history.user.id = :userId
             """)
-    Page<BookTransactionHistory> findAllBorrowedBooks(Pageable pageable,
-                                                      @Param("userId") Integer userId);
+    Page<BorrowedBookView> findAllBorrowedBooks(Pageable pageable,
+                                                @Param("userId") Integer userId);
 
     /**
-     * Retrieves a paginated list of all returned books
-     * where the 'createdBy' field on the Book entity matches a given ID or username.
-     *
-     * Note: If 'createdBy' is actually an integer user ID, adjust the parameter/field type.
-     * If it's a username (string), then adjust accordingly as well.
+     * Retrieves a paginated list of all transactions on books owned by a given user,
+     * projected together with the book columns in a single query.
+     */
+    @Query(value = """
+            SELECT new com.NextCoreInv.book_network.book.BorrowedBookView(
+                book.id, book.title, book.authorName, book.isbn,
+                book.ratingSum, book.ratingCount, history.returned, history.returnApproved,
+                history.id, history.createdDate
+            )
+            FROM BookTransactionHistory history
+            JOIN history.book book
+            WHERE book.owner.id = :userId
+            """,
+            countQuery = """
+            SELECT COUNT(history)
+            FROM BookTransactionHistory history
+            WHERE history.book.owner.id = :userId
+            """)
+    Page<BorrowedBookView> findAllReturnedBooks(Pageable pageable,
+                                                @Param("userId") Integer userId);
+
+    /**
+     * Keyset-paginated variants of the two listings above, ordered by (createdDate, id)
+     * descending. The "After" variants seek past the cursor instead of using OFFSET,
+     * and none of them issue a COUNT query.
      */
     @Query("""
-            SELECT history
+            SELECT new com.NextCoreInv.book_network.book.BorrowedBookView(
+                book.id, book.title, book.authorName, book.isbn,
+                book.ratingSum, book.ratingCount, history.returned, history.returnApproved,
+                history.id, history.createdDate
+            )
             FROM BookTransactionHistory history
-            WHERE history.book.createdBy = :userId
+            JOIN history.book book
+            WHERE history.user.id = :userId
+            ORDER BY history.createdDate DESC, history.id DESC
             """)
-    Page<BookTransactionHistory> findAllReturnedBooks(Pageable pageable,
-                                                      @Param("userId") Integer userId);
+    Slice<BorrowedBookView> findBorrowedBooksSlice(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.NextCoreInv.book_network.book.BorrowedBookView(
+                book.id, book.title, book.authorName, book.isbn,
+                book.ratingSum, book.ratingCount, history.returned, history.returnApproved,
+                history.id, history.createdDate
+            )
+            FROM BookTransactionHistory history
+            JOIN history.book book
+            WHERE history.user.id = :userId
+              AND (history.createdDate, history.id) < (:createdDate, :id)
+            ORDER BY history.createdDate DESC, history.id DESC
+            """)
+    Slice<BorrowedBookView> findBorrowedBooksSliceAfter(@Param("userId") Integer userId,
+                                                        @Param("createdDate") LocalDateTime createdDate,
+                                                        @Param("id") Integer id,
+                                                        Pageable pageable);
+
+    @Query("""
+            SELECT new com.NextCoreInv.book_network.book.BorrowedBookView(
+                book.id, book.title, book.authorName, book.isbn,
+                book.ratingSum, book.ratingCount, history.returned, history.returnApproved,
+                history.id, history.createdDate
+            )
+            FROM BookTransactionHistory history
+            JOIN history.book book
+            WHERE book.owner.id = :userId
+            ORDER BY history.createdDate DESC, history.id DESC
+            """)
+    Slice<BorrowedBookView> findReturnedBooksSlice(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.NextCoreInv.book_network.book.BorrowedBookView(
+                book.id, book.title, book.authorName, book.isbn,
+                book.ratingSum, book.ratingCount, history.returned, history.returnApproved,
+                history.id, history.createdDate
+            )
+            FROM BookTransactionHistory history
+            JOIN history.book book
+            WHERE book.owner.id = :userId
+              AND (history.createdDate, history.id) < (:createdDate, :id)
+            ORDER BY history.createdDate DESC, history.id DESC
+            """)
+    Slice<BorrowedBookView> findReturnedBooksSliceAfter(@Param("userId") Integer userId,
+                                                        @Param("createdDate") LocalDateTime createdDate,
+                                                        @Param("id") Integer id,
+                                                        Pageable pageable);
 
     /**
      * Finds a transaction record for a user who has borrowed a specific book
@@ -98,4 +186,46 @@ public interface BookTransactionHistoryRepository extends JpaRepository<BookTran
     Optional<BookTransactionHistory> findByBookIDAndOwnerId(@Param("bookId") Integer bookId,
                                                             @Param("userId") Integer userId);
 
+    /**
+     * Returns which of the given books currently have an open loan.
+     */
+    @Query("""
+            SELECT transaction.activeBookId
+            FROM BookTransactionHistory transaction
+            WHERE transaction.activeBookId IN :bookIds
+            """)
+    List<Integer> findActiveBookIds(@Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * Batch variant of {@link #findByBookIDAndUserId}: the user's open loans among the given books.
+     */
+    @Query("""
+            SELECT transaction
+            FROM BookTransactionHistory transaction
+            JOIN FETCH transaction.book
+            JOIN FETCH transaction.user
+            WHERE transaction.user.id = :userId
+              AND transaction.book.id IN :bookIds
+              AND transaction.returned = false
+              AND transaction.returnApproved = false
+            """)
+    List<BookTransactionHistory> findAllByBookIdsAndUserId(@Param("bookIds") Collection<Integer> bookIds,
+                                                           @Param("userId") Integer userId);
+
+    /**
+     * Batch variant of {@link #findByBookIDAndOwnerId}: returned loans awaiting the owner's approval
+     * among the given books.
+     */
+    @Query("""
+            SELECT transaction
+            FROM BookTransactionHistory transaction
+            JOIN FETCH transaction.book
+            JOIN FETCH transaction.user
+            WHERE transaction.book.owner.id = :userId
+              AND transaction.book.id IN :bookIds
+              AND transaction.returned = true
+              AND transaction.returnApproved = false
+            """)
+    List<BookTransactionHistory> findAllByBookIdsAndOwnerId(@Param("bookIds") Collection<Integer> bookIds,
+                                                            @Param("userId") Integer userId);
 }
@@ -3,6 +3,8 @@ package com.NextCoreInv.book_network.role;
 import com.NextCoreInv.book_network.user.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate; // Fixing incorrect annotation
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -18,6 +20,8 @@ import java.util.List;
 @Entity
 @Table(name = "role")
 @EntityListeners(AuditingEntityListener.class)
+// Reference data only written at startup (DataInitializer): a node-local cache cannot serve a stale row
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role")
 public class Role {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Specify ID generation strategy
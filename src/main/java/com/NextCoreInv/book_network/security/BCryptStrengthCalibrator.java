@@ -0,0 +1,56 @@
+package com.NextCoreInv.book_network.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * Picks the BCrypt strength whose hashing time on this machine comes closest to a target latency
+ * without exceeding it. Each extra unit of strength doubles the work, so a single measurement at
+ * the lowest accepted strength is enough to extrapolate the others.
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd";
+    private static final int SAMPLES = 3;
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        int strength = calibrate(targetLatency, minStrength, maxStrength, BCryptStrengthCalibrator::measure);
+        log.info("BCrypt strength calibrated to {} for a target of {} ms", strength, targetLatency.toMillis());
+        return strength;
+    }
+
+    static int calibrate(Duration targetLatency, int minStrength, int maxStrength, IntFunction<Duration> hashingTime) {
+        if (minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt min strength is above max strength");
+        }
+        hashingTime.apply(minStrength); // warm-up, the first hash runs interpreted
+        Duration fastest = hashingTime.apply(minStrength);
+        for (int i = 1; i < SAMPLES; i++) {
+            Duration sample = hashingTime.apply(minStrength);
+            if (sample.compareTo(fastest) < 0) {
+                fastest = sample;
+            }
+        }
+        int strength = minStrength;
+        long nanos = Math.max(1, fastest.toNanos());
+        while (strength < maxStrength && nanos * 2 <= targetLatency.toNanos()) {
+            nanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    private static Duration measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,177 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.user.UserDetailsChangedEvent;
+import com.NextCoreInv.book_network.user.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Shields the login from brute force and credential stuffing. Every attempt takes a token from the
+ * bucket of its client IP and from the bucket of the targeted email, before any password is hashed
+ * (see LoginRateLimitFilter). Consecutive failed logins on an email lock the account for
+ * {@code lockout.duration}, after which it is unlocked by {@link #unlockExpiredAccounts()}.
+ * Buckets and failure counts live in memory, per node, in bounded caches.
+ */
+@Service
+@Slf4j
+public class LoginAttemptService {
+
+    private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Counter allowed;
+    private final Counter throttledByIp;
+    private final Counter throttledByEmail;
+    private final Counter lockouts;
+    private LongSupplier nanoClock = System::nanoTime;
+
+    @Value("${application.security.login.rate-limit.enabled:true}")
+    private boolean enabled;
+    @Value("${application.security.login.rate-limit.ip-capacity:20}")
+    private int ipCapacity;
+    @Value("${application.security.login.rate-limit.ip-refill-period:1m}")
+    private Duration ipRefillPeriod;
+    @Value("${application.security.login.rate-limit.email-capacity:5}")
+    private int emailCapacity;
+    @Value("${application.security.login.rate-limit.email-refill-period:1m}")
+    private Duration emailRefillPeriod;
+    @Value("${application.security.login.rate-limit.max-tracked-keys:100000}")
+    private long maxTrackedKeys;
+    @Value("${application.security.login.lockout.max-failures:10}")
+    private int maxFailures;
+    @Value("${application.security.login.lockout.failure-window:15m}")
+    private Duration failureWindow;
+    @Value("${application.security.login.lockout.duration:15m}")
+    private Duration lockoutDuration;
+
+    private Cache<String, TokenBucket> ipBuckets;
+    private Cache<String, TokenBucket> emailBuckets;
+    private Cache<String, AtomicInteger> failures;
+
+    public LoginAttemptService(
+            UserRepository userRepository,
+            RefreshTokenService refreshTokenService,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.allowed = attemptCounter(meterRegistry, "allowed");
+        this.throttledByIp = attemptCounter(meterRegistry, "throttled_ip");
+        this.throttledByEmail = attemptCounter(meterRegistry, "throttled_email");
+        this.lockouts = Counter.builder("security.login.lockouts").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        // An idle bucket is full again after its refill period, so dropping it then loses nothing
+        ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(ipRefillPeriod)
+                .build();
+        emailBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(emailRefillPeriod)
+                .build();
+        failures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterWrite(failureWindow)
+                .build();
+        meterRegistry.gauge("security.login.tracked.keys", this,
+                service -> service.ipBuckets.estimatedSize() + service.emailBuckets.estimatedSize());
+    }
+
+    /**
+     * Takes a token for a login attempt from the IP bucket, then from the email one.
+     *
+     * @return empty when the attempt may proceed, otherwise how long the client should wait
+     */
+    public Optional<Duration> tryAcquire(String ip, String email) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long now = nanoClock.getAsLong();
+        TokenBucket ipBucket = ipBuckets.get(ip, key -> new TokenBucket(ipCapacity, ipRefillPeriod, now));
+        if (!ipBucket.tryConsume(now)) {
+            throttledByIp.increment();
+            return Optional.of(ipBucket.timeToNextToken(now));
+        }
+        if (email != null) {
+            TokenBucket emailBucket = emailBuckets.get(normalize(email),
+                    key -> new TokenBucket(emailCapacity, emailRefillPeriod, now));
+            if (!emailBucket.tryConsume(now)) {
+                throttledByEmail.increment();
+                return Optional.of(emailBucket.timeToNextToken(now));
+            }
+        }
+        allowed.increment();
+        return Optional.empty();
+    }
+
+    public void onSuccess(String email) {
+        failures.invalidate(normalize(email));
+    }
+
+    /**
+     * Counts a failed login; the account is locked when {@code max-failures} of them happen within
+     * {@code failure-window}, and the sessions it has open are ended: its refresh tokens and the
+     * access tokens issued so far are revoked. Unknown emails are counted too, so they do not stand out.
+     */
+    public void onFailure(String email) {
+        if (maxFailures < 1) {
+            return;
+        }
+        String key = normalize(email);
+        int count = failures.get(key, k -> new AtomicInteger()).incrementAndGet();
+        if (count >= maxFailures) {
+            failures.invalidate(key);
+            // Emails are stored and looked up as typed at registration
+            if (userRepository.lock(email, LocalDateTime.now()) > 0) {
+                refreshTokenService.revokeAll(email);
+                lockouts.increment();
+                log.warn("Account locked after {} failed logins", count);
+                eventPublisher.publishEvent(new UserDetailsChangedEvent(email));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.login.lockout.unlock-interval:PT1M}")
+    public void unlockExpiredAccounts() {
+        LocalDateTime before = LocalDateTime.now().minus(lockoutDuration);
+        List<String> emails = userRepository.findEmailsLockedBefore(before);
+        if (emails.isEmpty()) {
+            return;
+        }
+        userRepository.unlockLockedBefore(before);
+        emails.forEach(email -> eventPublisher.publishEvent(new UserDetailsChangedEvent(email)));
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter attemptCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("security.login.attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
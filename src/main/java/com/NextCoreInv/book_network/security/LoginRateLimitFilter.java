@@ -0,0 +1,246 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.handler.ExceptionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static com.NextCoreInv.book_network.handler.BusinessErrorCodes.TOO_MANY_LOGIN_ATTEMPTS;
+
+/**
+ * Rate limits {@code POST /auth/authentication} per client IP and per email (see LoginAttemptService),
+ * ahead of the controller so that a throttled attempt never reaches the password hashing.
+ * The login body is read here to get the email, then replayed to the controller.
+ * Behind a reverse proxy the client IP is taken from X-Forwarded-For, only when the request comes from
+ * one of {@code trusted-proxies}: otherwise every client would share the proxy's bucket, and any client
+ * could pick its own bucket by sending the header.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/authentication";
+    // Far above any genuine login request
+    private static final int MAX_BODY_SIZE = 8 * 1024;
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    private final LoginAttemptService loginAttemptService;
+    private final ObjectMapper objectMapper;
+
+    // Addresses or CIDR ranges of the reverse proxies allowed to set X-Forwarded-For
+    @Value("${application.security.login.rate-limit.trusted-proxies:127.0.0.1,::1}")
+    private List<String> trustedProxies;
+    private List<IpAddressMatcher> trustedProxyMatchers;
+
+    @PostConstruct
+    void init() {
+        trustedProxyMatchers = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !LOGIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (request.getContentLengthLong() > MAX_BODY_SIZE) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_SIZE);
+        Optional<Duration> retryAfter = loginAttemptService.tryAcquire(clientIp(request), readEmail(body));
+        if (retryAfter.isPresent()) {
+            reject(response, retryAfter.get());
+            return;
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    /**
+     * Walks X-Forwarded-For from the right, where each trusted proxy appended the address it got the
+     * request from, and stops at the first address that is not a trusted proxy: entries left of it
+     * were written by the client and are ignored.
+     */
+    private String clientIp(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR);
+        if (forwardedFor == null || !isTrustedProxy(address)) {
+            return address;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!isIpAddress(hop)) {
+                return address;
+            }
+            address = hop;
+            if (!isTrustedProxy(hop)) {
+                return hop;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        return isIpAddress(address) && trustedProxyMatchers.stream().anyMatch(matcher -> matcher.matches(address));
+    }
+
+    // IP literals only, so that a forged host name never triggers a DNS lookup
+    private static boolean isIpAddress(String address) {
+        return address != null && (address.indexOf(':') >= 0 || IPV4.matcher(address).matches());
+    }
+
+    // A body that cannot be parsed is left to the controller, which answers it with a 400
+    private String readEmail(byte[] body) {
+        try {
+            return objectMapper.readTree(body).path("email").textValue();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, Duration retryAfter) throws IOException {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        response.setStatus(TOO_MANY_LOGIN_ATTEMPTS.getHttpStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ExceptionResponse.builder()
+                .businessErrorCode(TOO_MANY_LOGIN_ATTEMPTS.getCode())
+                .businessErrorDescription(TOO_MANY_LOGIN_ATTEMPTS.getDescription())
+                .build());
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new CachedBodyInputStream(body);
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Replays the login body from memory. For non-blocking reads (a ReadListener), every byte is
+     * available at once: the listener is called back once with the data, and told all data was read
+     * only when it has read up to the end, right then or later.
+     */
+    private static class CachedBodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream content;
+        private ReadListener readListener;
+        private boolean dispatching;
+        private boolean allDataReadNotified;
+
+        CachedBodyInputStream(byte[] body) {
+            this.content = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return content.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return !isFinished();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (readListener == null) {
+                throw new NullPointerException("ReadListener is null");
+            }
+            if (this.readListener != null) {
+                throw new IllegalStateException("ReadListener already set");
+            }
+            this.readListener = readListener;
+            try {
+                if (!isFinished()) {
+                    dispatching = true;
+                    try {
+                        readListener.onDataAvailable();
+                    } finally {
+                        dispatching = false;
+                    }
+                }
+                notifyIfAllDataRead();
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = content.read();
+            afterRead();
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = content.read(b, off, len);
+            afterRead();
+            return read;
+        }
+
+        // A listener reading the rest of the body outside of onDataAvailable is notified on its last read
+        private void afterRead() throws IOException {
+            if (!dispatching) {
+                notifyIfAllDataRead();
+            }
+        }
+
+        private void notifyIfAllDataRead() throws IOException {
+            if (readListener != null && isFinished() && !allDataReadNotified) {
+                allDataReadNotified = true;
+                readListener.onAllDataRead();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.Exception.InvalidRefreshTokenException;
+import com.NextCoreInv.book_network.user.Token;
+import com.NextCoreInv.book_network.user.TokenRepository;
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues the long-lived refresh tokens that renew the short-lived access tokens without a password check.
+ * Only the SHA-256 of a refresh token is stored, in the token table: the stored values cannot be
+ * replayed, and renewing is one lookup on the unique index of token.token.
+ * A refresh token is good for one renewal, which hands out the next one. Presenting a token that was
+ * already used means it was copied, so every refresh token of its user is revoked, along with the
+ * access tokens issued so far.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    static final String REFRESH = "REFRESH";
+    private static final int TOKEN_BYTES = 32;
+
+    private final TokenRepository tokenRepository;
+    private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${application.security.jwt.refresh-expiration:7d}")
+    private Duration refreshExpiration;
+
+    /**
+     * @return the refresh token to hand to the client, never stored as is
+     */
+    @Transactional
+    public String issue(User user) {
+        return create(userRepository.getReferenceById(user.getId()), LocalDateTime.now());
+    }
+
+    /**
+     * Consumes a refresh token and issues the next one, for an account that is still enabled and unlocked.
+     * The revocations that follow a reused token are committed even though the call fails.
+     */
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        Token token = tokenRepository.findRefreshToken(hash(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token is not valid"));
+        User user = token.getUser();
+        if (tokenRepository.revoke(token.getId(), now) == 0) {
+            tokenRepository.revokeAllRefreshTokens(user.getId(), now);
+            tokenRevocationService.revokeAll(user.getEmail());
+            log.warn("Refresh token of user {} was used twice, all its tokens are revoked", user.getId());
+            throw new InvalidRefreshTokenException("Refresh token is not valid");
+        }
+        if (now.isAfter(token.getExpiresAt()) || !user.isEnabled() || !user.isAccountNonLocked()) {
+            throw new InvalidRefreshTokenException("Refresh token has expired, please log in again");
+        }
+        return new Rotation(user, create(user, now));
+    }
+
+    /**
+     * Revokes every refresh token of the user and the access tokens issued so far, e.g. when its
+     * account gets locked. Unknown emails are ignored.
+     */
+    @Transactional
+    public void revokeAll(String email) {
+        userRepository.findByEmail(email)
+                .ifPresent(user -> tokenRepository.revokeAllRefreshTokens(user.getId(), LocalDateTime.now()));
+        tokenRevocationService.revokeAll(email);
+    }
+
+    // Unknown or already revoked tokens are ignored, a logout always succeeds
+    @Transactional
+    public void revoke(String refreshToken) {
+        tokenRepository.findRefreshToken(hash(refreshToken))
+                .ifPresent(token -> tokenRepository.revoke(token.getId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.jwt.refresh-purge-interval:PT1H}")
+    public void purgeExpiredTokens() {
+        int purged = tokenRepository.deleteRefreshTokensExpiredBefore(LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private String create(User user, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tokenRepository.save(Token.builder()
+                .token(hash(refreshToken))
+                .tokenType(REFRESH)
+                .createdAt(now)
+                .expiresAt(now.plus(refreshExpiration))
+                .user(user)
+                .build());
+        return refreshToken;
+    }
+
+    // A plain digest is enough: the tokens are 256 random bits, there is nothing to brute force
+    private static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
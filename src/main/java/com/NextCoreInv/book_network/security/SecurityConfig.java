@@ -26,6 +26,7 @@ public class SecurityConfig {
 
     // Required dependencies injected through constructor
     private final JwtFilter jwtAuthFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
     private final AuthenticationProvider authenticationProvider;
 
     /**
@@ -78,6 +79,9 @@ public class SecurityConfig {
                 // Set authentication provider
                 .authenticationProvider(authenticationProvider)
 
+                // Throttle login attempts before any password is hashed
+                .addFilterBefore(loginRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+
                 // Add JWT filter before username/password authentication
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
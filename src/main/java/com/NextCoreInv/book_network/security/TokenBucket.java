@@ -0,0 +1,45 @@
+package com.NextCoreInv.book_network.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of {@code capacity} tokens, fully refilled over {@code refillPeriod}. The whole state is
+ * the instant at which the bucket is full again (the generic cell rate algorithm), kept in one
+ * {@link AtomicLong}: taking a token is a single compare-and-set, without any lock.
+ * Instants are {@link System#nanoTime()} values.
+ */
+final class TokenBucket {
+
+    private final long interval;
+    private final long burst;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, Duration refillPeriod, long now) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Token bucket capacity must be at least 1");
+        }
+        this.interval = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burst = interval * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    boolean tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            if (next - now > burst) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    // How long until the next token is available, zero when there is one
+    Duration timeToNextToken(long now) {
+        long wait = fullAt.get() - now - (burst - interval);
+        return Duration.ofNanos(Math.max(0, wait));
+    }
+}
@@ -0,0 +1,93 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.user.UserDetailsChangedEvent;
+import com.NextCoreInv.book_network.user.UserRepository;
+import com.NextCoreInv.book_network.user.UserTokenState;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Decides whether an access token still stands, from a small per-user record persisted on _user:
+ * the enabled / locked flags and the second before which issued tokens are rejected (tokens_not_before,
+ * compared to the "iat" claim). This lets a token-only principal be invalidated (lock, disable, role
+ * change) without loading the user and its roles on every request, and the revocation survives
+ * restarts and holds on every node. Each node keeps the record for {@code revocation-check-ttl}:
+ * the node making a change sees it at once, the others at most that late.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final UserRepository userRepository;
+
+    @Value("${application.security.jwt.revocation-check-ttl:10s}")
+    private Duration checkTtl;
+    @Value("${application.security.jwt.revocation-check-cache-size:10000}")
+    private long checkCacheSize;
+
+    private Cache<String, UserTokenState> states;
+
+    @PostConstruct
+    void init() {
+        states = Caffeine.newBuilder()
+                .maximumSize(checkCacheSize)
+                .expireAfterWrite(checkTtl)
+                .build();
+    }
+
+    /**
+     * Rejects every token issued to the given user before the current second. "iat" only has a one
+     * second resolution, so a token issued in the revocation second, such as the one of a login right
+     * after an unlock or a password change, is kept.
+     */
+    public void revokeAll(String email) {
+        userRepository.revokeTokens(email, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        states.invalidate(email);
+    }
+
+    /**
+     * @return the current state of the user, empty if there is no such user any more
+     */
+    public Optional<UserTokenState> currentState(String email) {
+        return Optional.ofNullable(states.get(email, key -> userRepository.findTokenState(key).orElse(null)));
+    }
+
+    public boolean isRevoked(Claims claims) {
+        UserTokenState state = currentState(claims.getSubject()).orElse(null);
+        if (state == null || !state.enabled() || state.accountLocked()) {
+            return true;
+        }
+        if (state.tokensNotBefore() == null) {
+            return false;
+        }
+        Instant revokedAt = state.tokensNotBefore().atZone(ZoneId.systemDefault()).toInstant();
+        Date issuedAt = claims.getIssuedAt();
+        // Truncated again for values stored with sub-second precision before revokeAll rounded them down
+        return issuedAt == null || issuedAt.toInstant().isBefore(revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Runs once the change is committed, in a transaction of its own.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserDetailsChanged(UserDetailsChangedEvent event) {
+        revokeAll(event.email());
+    }
+}
@@ -1,22 +1,87 @@
 package com.NextCoreInv.book_network.security;
 
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserDetailsChangedEvent;
 import com.NextCoreInv.book_network.user.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${application.security.user-cache.enabled:true}")
+    private boolean cacheEnabled;
+    @Value("${application.security.user-cache.max-size:10000}")
+    private long cacheMaxSize;
+    @Value("${application.security.user-cache.ttl:10m}")
+    private Duration cacheTtl;
+
+    // Users by email, so authenticated requests skip the user + roles lookup
+    private Cache<String, User> users;
+
+    @PostConstruct
+    void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, users, "userDetails"));
+    }
 
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String userEmail) throws UsernameNotFoundException {
+        if (!cacheEnabled) {
+            return findUser(userEmail);
+        }
+        return users.get(userEmail, this::findUser);
+    }
+
+    /**
+     * Stores the password rehashed at the current strength after a successful login
+     * (see DaoAuthenticationProvider). Only the cached copy is dropped: a rehash is no
+     * UserDetailsChangedEvent, which would revoke the token about to be issued.
+     * Should a concurrent lookup cache the old hash again, it only gets rehashed once more.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User stored = findUser(user.getUsername());
+        stored.setPassword(newPassword);
+        userRepository.save(stored);
+        users.invalidate(stored.getEmail());
+        return stored;
+    }
+
+    /**
+     * Drops the cached copy once the change is committed, so the next lookup reads it back.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDetailsChanged(UserDetailsChangedEvent event) {
+        users.invalidate(event.email());
+    }
+
+    private User findUser(String userEmail) {
         return userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
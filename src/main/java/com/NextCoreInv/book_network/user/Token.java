@@ -22,7 +22,9 @@ public class Token {
     @Column(name = "expiry_date")
     private LocalDateTime expiresAt;
     private LocalDateTime validatedAt;
-    
+    // Refresh tokens only: set once the token was used (rotated) or revoked
+    private LocalDateTime revokedAt;
+
     @Column(name = "type")
     private String tokenType = "ACTIVATION";
 
@@ -1,9 +1,53 @@
 package com.NextCoreInv.book_network.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Integer> {
     Optional<Token> findByToken(String token);
+
+    // Served by the unique constraint on token.token
+    @Query("""
+        SELECT token
+        FROM Token token
+        JOIN FETCH token.user
+        WHERE token.token = :hash
+        AND token.tokenType = 'REFRESH'
+        """)
+    Optional<Token> findRefreshToken(@Param("hash") String hash);
+
+    // Only one of concurrent callers presenting the same refresh token gets 1 back
+    @Modifying
+    @Query("""
+        UPDATE Token token
+        SET token.revokedAt = :now
+        WHERE token.id = :id
+        AND token.revokedAt IS NULL
+        """)
+    int revoke(@Param("id") Integer id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+        UPDATE Token token
+        SET token.revokedAt = :now
+        WHERE token.user.id = :userId
+        AND token.tokenType = 'REFRESH'
+        AND token.revokedAt IS NULL
+        """)
+    int revokeAllRefreshTokens(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        DELETE FROM Token token
+        WHERE token.tokenType = 'REFRESH'
+        AND token.expiresAt < :before
+        """)
+    int deleteRefreshTokensExpiredBefore(@Param("before") LocalDateTime before);
 }
@@ -54,6 +54,10 @@ public class User implements UserDetails, Principal {
     private String email;
     private String password;
     private boolean accountLocked;
+    // Set when the account was locked after repeated failed logins, see LoginAttemptService
+    private LocalDateTime lockedAt;
+    // Access tokens issued up to this instant are rejected, see TokenRevocationService
+    private LocalDateTime tokensNotBefore;
     private boolean enabled;
     @ManyToMany(fetch = EAGER)
     private List<Role> roles;
@@ -0,0 +1,11 @@
+package com.NextCoreInv.book_network.user;
+
+/**
+ * Published whenever a change affects how a user authenticates (activation, lock, disable, roles),
+ * so that anything holding a copy of the user's details can drop it. The access tokens issued
+ * until then are revoked (see TokenRevocationService).
+ *
+ * @param email the username of the changed account
+ */
+public record UserDetailsChangedEvent(String email) {
+}
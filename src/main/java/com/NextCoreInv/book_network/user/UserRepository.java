@@ -1,10 +1,65 @@
 package com.NextCoreInv.book_network.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByEmail(String email);
+
+    // Returns 0 when there is no such user or it is already locked
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE User user
+        SET user.accountLocked = true,
+            user.lockedAt = :now
+        WHERE user.email = :email
+        AND user.accountLocked = false
+        """)
+    int lock(@Param("email") String email, @Param("now") LocalDateTime now);
+
+    @Query("""
+        SELECT user.email
+        FROM User user
+        WHERE user.accountLocked = true
+        AND user.lockedAt < :before
+        """)
+    List<String> findEmailsLockedBefore(@Param("before") LocalDateTime before);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE User user
+        SET user.accountLocked = false,
+            user.lockedAt = null
+        WHERE user.accountLocked = true
+        AND user.lockedAt < :before
+        """)
+    int unlockLockedBefore(@Param("before") LocalDateTime before);
+
+    @Query("""
+        SELECT new com.NextCoreInv.book_network.user.UserTokenState(
+            user.enabled, user.accountLocked, user.tokensNotBefore
+        )
+        FROM User user
+        WHERE user.email = :email
+        """)
+    Optional<UserTokenState> findTokenState(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE User user
+        SET user.tokensNotBefore = :notBefore
+        WHERE user.email = :email
+        """)
+    int revokeTokens(@Param("email") String email, @Param("notBefore") LocalDateTime notBefore);
 }
@@ -0,0 +1,13 @@
+package com.NextCoreInv.book_network.user;
+
+import java.time.LocalDateTime;
+
+/**
+ * The part of a user that decides whether its access tokens still stand, read without the roles.
+ */
+public record UserTokenState(
+        boolean enabled,
+        boolean accountLocked,
+        LocalDateTime tokensNotBefore
+) {
+}
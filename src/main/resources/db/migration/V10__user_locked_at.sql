@@ -0,0 +1,9 @@
+-- When LoginAttemptService locked the account after repeated failed logins; it is unlocked once the
+-- lockout has elapsed. Accounts locked by other means keep a NULL and stay locked.
+
+ALTER TABLE _user ADD COLUMN IF NOT EXISTS locked_at TIMESTAMP(6);
+
+-- UserRepository.findEmailsLockedBefore / unlockLockedBefore
+CREATE INDEX IF NOT EXISTS ix_user_locked_at
+    ON _user (locked_at)
+    WHERE locked_at IS NOT NULL;
@@ -0,0 +1,9 @@
+-- Refresh tokens share the token table with activation codes (type = 'REFRESH'). Only their SHA-256
+-- is stored in token.token, so renewing an access token is one lookup on its unique index.
+
+ALTER TABLE token ADD COLUMN IF NOT EXISTS revoked_at TIMESTAMP(6);
+
+-- RefreshTokenService.purgeExpiredTokens
+CREATE INDEX IF NOT EXISTS ix_token_refresh_expiry
+    ON token (expiry_date)
+    WHERE type = 'REFRESH';
@@ -0,0 +1,4 @@
+-- Access tokens of the user issued up to this instant are rejected (see TokenRevocationService).
+-- Kept in the database so that a revocation survives restarts and is seen by every node.
+
+ALTER TABLE _user ADD COLUMN IF NOT EXISTS tokens_not_before TIMESTAMP(6);
@@ -0,0 +1,82 @@
+-- Schema as previously generated by Hibernate (ddl-auto), before migrations took over.
+-- Existing databases are baselined at this version, so this script only runs on empty ones.
+
+CREATE SEQUENCE _user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE book_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE book_transaction_history_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE feedback_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE token_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE _user (
+    id                 INTEGER      NOT NULL PRIMARY KEY,
+    firstname          VARCHAR(255),
+    lastname           VARCHAR(255),
+    date_of_birth      DATE,
+    email              VARCHAR(255) UNIQUE,
+    password           VARCHAR(255),
+    account_locked     BOOLEAN      NOT NULL,
+    enabled            BOOLEAN      NOT NULL,
+    created_date       TIMESTAMP(6) NOT NULL,
+    last_modified_date TIMESTAMP(6)
+);
+
+CREATE TABLE role (
+    id           SERIAL       NOT NULL PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL UNIQUE,
+    created_date TIMESTAMP(6) NOT NULL,
+    updated_date TIMESTAMP(6)
+);
+
+CREATE TABLE _user_roles (
+    users_id INTEGER NOT NULL REFERENCES _user,
+    roles_id INTEGER NOT NULL REFERENCES role
+);
+
+CREATE TABLE book (
+    id                 INTEGER      NOT NULL PRIMARY KEY,
+    title              VARCHAR(255),
+    author_name        VARCHAR(255),
+    isbn               VARCHAR(255),
+    synopsis           VARCHAR(255),
+    book_cover         VARCHAR(255),
+    archived           BOOLEAN      NOT NULL,
+    shareable          BOOLEAN      NOT NULL,
+    owner_id           INTEGER REFERENCES _user,
+    created_date       TIMESTAMP(6) NOT NULL,
+    last_modified_date TIMESTAMP(6),
+    created_by         VARCHAR(255) NOT NULL,
+    last_modified_by   VARCHAR(255)
+);
+
+CREATE TABLE book_transaction_history (
+    id                 INTEGER      NOT NULL PRIMARY KEY,
+    book_id            INTEGER REFERENCES book,
+    user_id            INTEGER REFERENCES _user,
+    returned           BOOLEAN      NOT NULL,
+    return_approved    BOOLEAN      NOT NULL,
+    created_date       TIMESTAMP(6) NOT NULL,
+    last_modified_date TIMESTAMP(6),
+    created_by         VARCHAR(255) NOT NULL,
+    last_modified_by   VARCHAR(255)
+);
+
+CREATE TABLE feedback (
+    id                 INTEGER      NOT NULL PRIMARY KEY,
+    book_id            INTEGER REFERENCES book,
+    note               FLOAT(53),
+    comment            VARCHAR(255),
+    created_date       TIMESTAMP(6) NOT NULL,
+    last_modified_date TIMESTAMP(6),
+    created_by         VARCHAR(255) NOT NULL,
+    last_modified_by   VARCHAR(255)
+);
+
+CREATE TABLE token (
+    id           INTEGER      NOT NULL PRIMARY KEY,
+    token        VARCHAR(255) UNIQUE,
+    type         VARCHAR(255),
+    created_at   TIMESTAMP(6),
+    expiry_date  TIMESTAMP(6),
+    validated_at TIMESTAMP(6),
+    user_id      INTEGER      NOT NULL REFERENCES _user
+);
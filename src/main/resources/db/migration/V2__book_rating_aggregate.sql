@@ -0,0 +1,13 @@
+-- Rating aggregate kept on book (sum and count of feedback notes).
+-- IF NOT EXISTS: dev databases may already have the columns from ddl-auto: update.
+
+ALTER TABLE book ADD COLUMN IF NOT EXISTS rating_sum FLOAT(53) DEFAULT 0 NOT NULL;
+ALTER TABLE book ADD COLUMN IF NOT EXISTS rating_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE book
+SET rating_sum   = aggregate.rating_sum,
+    rating_count = aggregate.rating_count
+FROM (SELECT book_id, COALESCE(SUM(note), 0) AS rating_sum, COUNT(*) AS rating_count
+      FROM feedback
+      GROUP BY book_id) aggregate
+WHERE aggregate.book_id = book.id;
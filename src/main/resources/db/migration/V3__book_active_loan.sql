@@ -0,0 +1,17 @@
+-- At most one open loan per book: active_book_id holds the book id until the return is approved.
+
+ALTER TABLE book_transaction_history ADD COLUMN IF NOT EXISTS active_book_id INTEGER;
+
+-- Flag the most recent unapproved transaction of every book that has no active loan yet
+UPDATE book_transaction_history history
+SET active_book_id = history.book_id
+WHERE history.id IN (SELECT MAX(open_loan.id)
+                     FROM book_transaction_history open_loan
+                     WHERE open_loan.return_approved = false
+                     GROUP BY open_loan.book_id)
+  AND NOT EXISTS (SELECT 1
+                  FROM book_transaction_history active
+                  WHERE active.active_book_id = history.book_id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_book_transaction_history_active_book_id
+    ON book_transaction_history (active_book_id);
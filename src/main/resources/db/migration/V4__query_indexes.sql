@@ -0,0 +1,28 @@
+-- Indexes backing the listing and lookup queries, ordered like their ORDER BY
+-- so both page and keyset (createdDate, id) listings read them without sorting.
+
+-- BookRepository.findAllDisplayableBooks / findDisplayableBooksSlice[After]
+CREATE INDEX IF NOT EXISTS ix_book_displayable_created
+    ON book (created_date DESC, id DESC)
+    WHERE archived = false AND shareable = true;
+
+-- BookRepository.findAllByOwnerId, and the join side of the returned-books listings
+CREATE INDEX IF NOT EXISTS ix_book_owner_created
+    ON book (owner_id, created_date DESC, id DESC);
+
+-- BookTransactionHistoryRepository.findAllBorrowedBooks / findBorrowedBooksSlice[After] / findByBookIDAndUserId
+CREATE INDEX IF NOT EXISTS ix_book_transaction_history_user_created
+    ON book_transaction_history (user_id, created_date DESC, id DESC);
+
+-- BookTransactionHistoryRepository.findByBookIDAndOwnerId, and the join side of findAllReturnedBooks
+CREATE INDEX IF NOT EXISTS ix_book_transaction_history_book_approved
+    ON book_transaction_history (book_id, return_approved);
+
+-- FeedBackRepository.findAllByBookId and the rating rebuild
+CREATE INDEX IF NOT EXISTS ix_feedback_book
+    ON feedback (book_id);
+
+-- TokenRepository.findByToken is served by the unique constraint on token.token;
+-- token.user_id backs the foreign key lookups.
+CREATE INDEX IF NOT EXISTS ix_token_user
+    ON token (user_id);
@@ -0,0 +1,4 @@
+-- Paths of the thumbnail and medium cover renditions, generated after each upload.
+
+ALTER TABLE book ADD COLUMN IF NOT EXISTS book_cover_thumbnail VARCHAR(255);
+ALTER TABLE book ADD COLUMN IF NOT EXISTS book_cover_medium VARCHAR(255);
@@ -0,0 +1,13 @@
+-- Running totals over the book table, so listings do not COUNT it on every request.
+
+CREATE TABLE IF NOT EXISTS book_counter (
+    name  VARCHAR(64) NOT NULL PRIMARY KEY,
+    total BIGINT      NOT NULL
+);
+
+INSERT INTO book_counter (name, total)
+SELECT 'displayable', COUNT(*)
+FROM book
+WHERE archived = false
+  AND shareable = true
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,16 @@
+-- Full-text search over the catalog (BookRepository.searchDisplayableBooks).
+-- The document is a stored generated column, so it is kept in sync by PostgreSQL on every write;
+-- title and author weigh more than the ISBN and the synopsis in the ranking.
+
+ALTER TABLE book ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(author_name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(isbn, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(synopsis, '')), 'D')
+    ) STORED;
+
+-- Only displayable books are searched
+CREATE INDEX IF NOT EXISTS ix_book_search
+    ON book USING GIN (search_vector)
+    WHERE archived = false AND shareable = true;
@@ -0,0 +1,8 @@
+-- Indexes behind the prefix filters of the book listing (BookSpecification.withAuthorPrefix / withIsbnPrefix).
+-- text_pattern_ops lets LIKE 'prefix%' use the b-tree whatever the database collation is.
+
+CREATE INDEX IF NOT EXISTS ix_book_author_prefix
+    ON book (lower(author_name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS ix_book_isbn_prefix
+    ON book (isbn text_pattern_ops);
@@ -0,0 +1,24 @@
+-- Outgoing emails, written with the change that triggers them and delivered by EmailDispatcher.
+
+CREATE SEQUENCE IF NOT EXISTS email_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id               INTEGER       NOT NULL PRIMARY KEY,
+    recipient        VARCHAR(255)  NOT NULL,
+    username         VARCHAR(255),
+    template         VARCHAR(255)  NOT NULL,
+    confirmation_url VARCHAR(255),
+    activation_code  VARCHAR(255),
+    subject          VARCHAR(255)  NOT NULL,
+    status           VARCHAR(255)  NOT NULL,
+    attempts         INTEGER       NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP(6)  NOT NULL,
+    last_error       VARCHAR(1000),
+    created_at       TIMESTAMP(6)  NOT NULL,
+    sent_at          TIMESTAMP(6)
+);
+
+-- EmailOutboxRepository.findDueIds: only the pending rows are ever polled
+CREATE INDEX IF NOT EXISTS ix_email_outbox_due
+    ON email_outbox (next_attempt_at)
+    WHERE status = 'PENDING';
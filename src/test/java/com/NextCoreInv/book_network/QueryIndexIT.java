@@ -0,0 +1,322 @@
+package com.NextCoreInv.book_network;
+
+import com.NextCoreInv.book_network.book.BookFilter;
+import com.NextCoreInv.book_network.book.BookRepository;
+import com.NextCoreInv.book_network.book.BookSpecification;
+import com.NextCoreInv.book_network.email.EmailOutboxRepository;
+import com.NextCoreInv.book_network.feedback.FeedBackRepository;
+import com.NextCoreInv.book_network.history.BookTransactionHistoryRepository;
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.NextCoreInv.book_network.user.TokenRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies the Flyway migrations to an embedded PostgreSQL and checks that each hot repository query is
+ * served by an index. The queries are run through the repositories; the SQL and bind values Hibernate
+ * actually sends are recorded by a proxy around the DataSource and replayed under EXPLAIN, so a change to
+ * a JPQL query, a Specification or a mapping is checked as well. Sequential scans are disabled so the
+ * assertion is about the index being usable, not about the planner's cost estimates for test data.
+ * Run with {@code mvn verify -Pintegration-test}.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestJpaConfig.class, QueryIndexIT.RecordingDataSourceConfig.class})
+public class QueryIndexIT {
+
+    private static final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+    @Autowired
+    private FeedBackRepository feedBackRepository;
+    @Autowired
+    private TokenRepository tokenRepository;
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        seed();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    void findAllDisplayableBooks_shouldUseDisplayableIndex() {
+        bookRepository.findAllDisplayableBooks(PageRequest.of(0, 10, Sort.by("createdDate").descending()));
+
+        assertUsesIndex("ix_book_displayable_created", firstStatement());
+    }
+
+    @Test
+    void findDisplayableBooksSliceAfter_shouldUseDisplayableIndex() {
+        bookRepository.findDisplayableBooksSliceAfter(LocalDateTime.now(), 5000, PageRequest.ofSize(10));
+
+        assertUsesIndex("ix_book_displayable_created", firstStatement());
+    }
+
+    @Test
+    void searchDisplayableBooks_shouldUseSearchIndex() {
+        bookRepository.searchDisplayableBooks("12345", PageRequest.of(0, 10));
+
+        assertUsesIndex("ix_book_search", firstStatement());
+    }
+
+    @Test
+    void findAllViews_withAuthorPrefix_shouldUseAuthorIndex() {
+        BookFilter filter = new BookFilter("Author 427", null, null, null, null, null);
+
+        bookRepository.findAllViews(BookSpecification.of(filter, 7), displayablePage());
+
+        assertUsesIndex("ix_book_author_prefix", firstStatement());
+    }
+
+    @Test
+    void findAllViews_withIsbnPrefix_shouldUseIsbnIndex() {
+        BookFilter filter = new BookFilter(null, "isbn-1234", null, null, null, null);
+
+        bookRepository.findAllViews(BookSpecification.of(filter, 7), displayablePage());
+
+        assertUsesIndex("ix_book_isbn_prefix", firstStatement());
+    }
+
+    @Test
+    void findAllByOwnerId_shouldUseOwnerIndex() {
+        bookRepository.findAllByOwnerId(7, PageRequest.of(0, 10, Sort.by("createdDate").descending()));
+
+        assertUsesIndex("ix_book_owner_created", firstStatement());
+    }
+
+    @Test
+    void findAllBorrowedBooks_shouldUseUserIndex() {
+        historyRepository.findAllBorrowedBooks(PageRequest.of(0, 10, Sort.by("createdDate").descending()), 7);
+
+        assertUsesIndex("ix_book_transaction_history_user_created", firstStatement());
+    }
+
+    @Test
+    void findAllReturnedBooks_shouldUseBookIndexes() {
+        historyRepository.findAllReturnedBooks(PageRequest.of(0, 10, Sort.by("createdDate").descending()), 7);
+
+        String plan = explain(firstStatement());
+        assertTrue(plan.contains("ix_book_owner_created"), plan);
+        assertTrue(plan.contains("ix_book_transaction_history_book_approved"), plan);
+    }
+
+    @Test
+    void findByBookIDAndOwnerId_shouldUseBookApprovedIndex() {
+        historyRepository.findByBookIDAndOwnerId(42, 7);
+
+        assertUsesIndex("ix_book_transaction_history_book_approved", firstStatement());
+    }
+
+    @Test
+    void findActiveBookIds_shouldUseActiveLoanIndex() {
+        historyRepository.findActiveBookIds(List.of(1, 2, 3));
+
+        assertUsesIndex("ux_book_transaction_history_active_book_id", firstStatement());
+    }
+
+    @Test
+    void findAllFeedbacksByBookId_shouldUseFeedbackIndex() {
+        feedBackRepository.findAllByBookId(42, PageRequest.of(0, 10));
+
+        assertUsesIndex("ix_feedback_book", firstStatement());
+    }
+
+    @Test
+    void findByToken_shouldUseUniqueTokenIndex() {
+        tokenRepository.findByToken("000123");
+
+        assertUsesIndex("token_token_key", firstStatement());
+    }
+
+    @Test
+    void findDueIds_shouldUseOutboxDueIndex() {
+        outboxRepository.findDueIds(LocalDateTime.now(), PageRequest.ofSize(50));
+
+        assertUsesIndex("ix_email_outbox_due", firstStatement());
+    }
+
+    // Same order as the filtered BookService.findAllBooks
+    private static PageRequest displayablePage() {
+        return PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdDate", "id"));
+    }
+
+    private static RecordedStatement firstStatement() {
+        assertFalse(statements.isEmpty(), "No statement was executed");
+        return statements.get(0);
+    }
+
+    private static void assertUsesIndex(String index, RecordedStatement statement) {
+        String plan = explain(statement);
+        assertTrue(plan.contains(index), "Expected " + index + " in plan of:\n" + statement.sql() + "\n" + plan);
+    }
+
+    // The bind values are sent along, so the plan is the one PostgreSQL picks for them (LIKE prefixes included)
+    private static String explain(RecordedStatement recorded) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder plan = new StringBuilder();
+                try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + recorded.sql())) {
+                    for (Map.Entry<Integer, Object> parameter : recorded.parameters().entrySet()) {
+                        explain.setObject(parameter.getKey(), parameter.getValue());
+                    }
+                    try (ResultSet rows = explain.executeQuery()) {
+                        while (rows.next()) {
+                            plan.append(rows.getString(1)).append('\n');
+                        }
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+
+    private static void seed() {
+        jdbcTemplate.execute("""
+                INSERT INTO _user (id, email, firstname, lastname, password, account_locked, enabled, created_date)
+                SELECT n, 'user' || n || '@mail.com', 'John', 'Doe', 'password', false, true, now()
+                FROM generate_series(1, 200) n
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO book (id, title, author_name, isbn, synopsis, archived, shareable, owner_id,
+                                  created_date, created_by)
+                SELECT n, 'Book ' || n, 'Author ' || n % 1000, 'isbn-' || n, 'synopsis', n % 10 = 0, n % 7 <> 0, n % 200 + 1,
+                       now() - n * interval '1 minute', '1'
+                FROM generate_series(1, 20000) n
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO book_transaction_history (id, book_id, user_id, returned, return_approved,
+                                                      active_book_id, created_date, created_by)
+                SELECT n, n % 20000 + 1, n % 200 + 1, n % 3 = 0, n % 3 <> 1,
+                       CASE WHEN n <= 20000 AND n % 3 = 1 THEN n % 20000 + 1 END,
+                       now() - n * interval '1 minute', '1'
+                FROM generate_series(1, 60000) n
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO feedback (id, book_id, note, comment, created_date, created_by)
+                SELECT n, n % 20000 + 1, n % 5 + 1, 'comment', now(), '1'
+                FROM generate_series(1, 40000) n
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO token (id, token, type, created_at, user_id)
+                SELECT n, lpad(n::text, 6, '0'), 'ACTIVATION', now(), n % 200 + 1
+                FROM generate_series(1, 5000) n
+                """);
+        // VACUUM also flushes the GIN pending list left behind by the bulk insert
+        jdbcTemplate.execute("VACUUM ANALYZE");
+    }
+
+    record RecordedStatement(String sql, Map<Integer, Object> parameters) {
+    }
+
+    /**
+     * Hands Hibernate a DataSource whose prepared statements record their SQL and bind values when executed.
+     */
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        DataSource dataSource() {
+            DataSource target = postgres.getPostgresDatabase();
+            return proxy(DataSource.class, target, (method, args, result) ->
+                    method.getName().equals("getConnection") ? recordingConnection((Connection) result) : result);
+        }
+
+        private static Connection recordingConnection(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    method.getName().equals("prepareStatement")
+                            ? recordingStatement((PreparedStatement) result, (String) args[0])
+                            : result);
+        }
+
+        private static PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                    statements.add(new RecordedStatement(sql, new TreeMap<>(parameters)));
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                }
+                return result;
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return interceptor.after(method, args, result);
+            }));
+        }
+
+        @FunctionalInterface
+        private interface Interceptor {
+            Object after(Method method, Object[] args, Object result) throws Throwable;
+        }
+    }
+}
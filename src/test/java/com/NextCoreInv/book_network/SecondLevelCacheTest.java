@@ -0,0 +1,132 @@
+package com.NextCoreInv.book_network;
+
+import com.NextCoreInv.book_network.book.Book;
+import com.NextCoreInv.book_network.book.BookRepository;
+import com.NextCoreInv.book_network.role.Role;
+import com.NextCoreInv.book_network.role.RoleRepository;
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the role reads are served by the second-level cache configured in hibernate-cache.conf,
+ * and that nothing written at runtime is cached.
+ * Runs outside the test transaction so every repository call gets its own session.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.uri=hibernate-cache.conf",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Import(TestJpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Role role = roleRepository.save(Role.builder().name("USER").build());
+        owner = new User();
+        owner.setEmail("owner@mail.com");
+        owner.setFirstname("owner");
+        owner.setLastname("Doe");
+        owner.setPassword("password");
+        owner.setRoles(List.of(role));
+        owner = userRepository.save(owner);
+        book = saveBook("Test Book");
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void findById_shouldServeRoleFromCache() {
+        Integer roleId = owner.getRoles().get(0).getId();
+        roleRepository.findById(roleId).orElseThrow();
+        long statementsAfterFirstLoad = statistics.getPrepareStatementCount();
+
+        roleRepository.findById(roleId).orElseThrow();
+
+        assertEquals(statementsAfterFirstLoad, statistics.getPrepareStatementCount());
+        assertEquals(1, regionHits("role"));
+    }
+
+    @Test
+    void findById_shouldNotCacheBookOrOwner() {
+        Book loaded = bookRepository.findById(book.getId()).orElseThrow();
+        userRepository.findById(owner.getId()).orElseThrow();
+
+        assertEquals("USER", loaded.getOwner().getRoles().get(0).getName());
+        // Written at runtime: a node-local copy would be stale on the other nodes
+        assertFalse(entityManagerFactory.getCache().contains(Book.class, book.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(User.class, owner.getId()));
+    }
+
+    @Test
+    void findByName_shouldServeRoleFromQueryCache() {
+        roleRepository.findByName("USER").orElseThrow();
+        long statementsAfterFirstLoad = statistics.getPrepareStatementCount();
+
+        roleRepository.findByName("USER").orElseThrow();
+
+        assertEquals(statementsAfterFirstLoad, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private long regionHits(String region) {
+        return statistics.getDomainDataRegionStatistics(region).getHitCount();
+    }
+
+    private Book saveBook(String title) {
+        return bookRepository.save(Book.builder()
+                .title(title)
+                .authorName("Test Author")
+                .isbn("1234567890")
+                .shareable(true)
+                .archived(false)
+                .owner(owner)
+                .build());
+    }
+}
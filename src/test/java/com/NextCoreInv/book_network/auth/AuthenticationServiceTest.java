@@ -2,6 +2,9 @@ package com.NextCoreInv.book_network.auth;
 
 import com.NextCoreInv.book_network.email.EmailService;
 import com.NextCoreInv.book_network.role.RoleRepository;
+import com.NextCoreInv.book_network.security.JwtService;
+import com.NextCoreInv.book_network.security.LoginAttemptService;
+import com.NextCoreInv.book_network.security.RefreshTokenService;
 import com.NextCoreInv.book_network.user.TokenRepository;
 import com.NextCoreInv.book_network.user.User;
 import com.NextCoreInv.book_network.user.UserRepository;
@@ -10,11 +13,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +43,14 @@ public class AuthenticationServiceTest {
     private EmailService emailService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private LoginAttemptService loginAttemptService;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private JwtService jwtService;
 
     @Test
     void register_shouldThrowException_whenEmailExists() {
@@ -40,4 +58,26 @@ public class AuthenticationServiceTest {
         when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(new User()));
         assertThrows(IllegalStateException.class, () -> authenticationService.register(request));
     }
+
+    @Test
+    void authentication_shouldRecordFailure_whenCredentialsAreBad() {
+        AuthenticationRequest request = AuthenticationRequest.builder().email("john.doe@example.com").password("wrong-password").build();
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.authentication(request));
+        verify(loginAttemptService).onFailure("john.doe@example.com");
+    }
+
+    @Test
+    void refreshToken_shouldIssueNewPair_withoutAuthenticating() {
+        User user = User.builder().id(1).firstname("John").lastname("Doe").email("john.doe@example.com").build();
+        when(refreshTokenService.rotate("old-refresh-token")).thenReturn(new RefreshTokenService.Rotation(user, "new-refresh-token"));
+        when(jwtService.generateToken(anyMap(), any(User.class))).thenReturn("access-token");
+
+        AuthenticationResponse response = authenticationService.refreshToken(new RefreshTokenRequest("old-refresh-token"));
+
+        assertEquals("access-token", response.getToken());
+        assertEquals("new-refresh-token", response.getRefreshToken());
+        verifyNoInteractions(authenticationManager);
+    }
 }
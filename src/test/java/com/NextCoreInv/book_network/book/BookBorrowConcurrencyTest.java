@@ -0,0 +1,115 @@
+package com.NextCoreInv.book_network.book;
+
+import com.NextCoreInv.book_network.Exception.OperationNotPermittedExeption;
+import com.NextCoreInv.book_network.file.CoverCache;
+import com.NextCoreInv.book_network.file.FileStorageService;
+import com.NextCoreInv.book_network.history.BookTransactionHistoryRepository;
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers a single book with concurrent borrow requests: only one of them may win.
+ * Runs outside the test transaction so every borrow commits on its own.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestJpaConfig.class, BookService.class, BookMapper.class, DisplayableBookCounter.class})
+@Sql(scripts = {"/test-data.sql"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookBorrowConcurrencyTest {
+
+    private static final int BORROWERS = 8;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @MockBean
+    private FileStorageService fileStorageService;
+    @MockBean
+    private CoverCache coverCache;
+
+    @AfterEach
+    void tearDown() {
+        historyRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void borrowBook_shouldLetOnlyOneConcurrentBorrowerWin() throws Exception {
+        Book book = bookRepository.save(Book.builder()
+                .title("Test Book")
+                .authorName("Test Author")
+                .isbn("1234567890")
+                .shareable(true)
+                .archived(false)
+                .owner(saveUser("owner"))
+                .build());
+        List<User> borrowers = new ArrayList<>();
+        for (int i = 0; i < BORROWERS; i++) {
+            borrowers.add(saveUser("borrower" + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(BORROWERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (User borrower : borrowers) {
+            attempts.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookService.borrowBook(book.getId(), new UsernamePasswordAuthenticationToken(borrower, null, List.of()));
+                    return true;
+                } catch (OperationNotPermittedExeption e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int successes = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get()) {
+                successes++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, successes);
+        assertEquals(1, historyRepository.count());
+    }
+
+    private User saveUser(String name) {
+        User user = new User();
+        user.setEmail(name + "@mail.com");
+        user.setFirstname(name);
+        user.setLastname("Doe");
+        user.setPassword("password");
+        return userRepository.save(user);
+    }
+}
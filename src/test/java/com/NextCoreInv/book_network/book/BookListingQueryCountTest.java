@@ -0,0 +1,128 @@
+package com.NextCoreInv.book_network.book;
+
+import com.NextCoreInv.book_network.feedback.FeedBackRepository;
+import com.NextCoreInv.book_network.feedback.Feedback;
+import com.NextCoreInv.book_network.history.BookTransactionHistory;
+import com.NextCoreInv.book_network.history.BookTransactionHistoryRepository;
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the listing queries against N+1 regressions: the number of statements
+ * executed for a page must not depend on how many rows the page holds.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(TestJpaConfig.class)
+@Sql(scripts = {"/test-data.sql"})
+public class BookListingQueryCountTest {
+
+    private static final int BOOKS = 12;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+    @Autowired
+    private FeedBackRepository feedBackRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User borrower;
+    private User lastOwner;
+
+    @BeforeEach
+    void setUp() {
+        borrower = saveUser("borrower");
+        for (int i = 0; i < BOOKS; i++) {
+            // Every book gets its own owner so lazy owner loading would show up as extra queries
+            lastOwner = saveUser("owner" + i);
+            Book book = bookRepository.save(Book.builder()
+                    .title("Book " + i)
+                    .authorName("Author " + i)
+                    .isbn("isbn-" + i)
+                    .synopsis("synopsis")
+                    .shareable(true)
+                    .archived(false)
+                    .owner(lastOwner)
+                    .build());
+            feedBackRepository.save(Feedback.builder().note(4.0).comment("nice").book(book).build());
+            historyRepository.save(BookTransactionHistory.builder().user(borrower).book(book).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllDisplayableBooks_shouldUseConstantQueryCount() {
+        assertConstantQueryCount(size -> bookRepository.findAllDisplayableBooks(pageOf(size)));
+    }
+
+    @Test
+    void findAllByOwnerId_shouldUseConstantQueryCount() {
+        assertConstantQueryCount(size -> bookRepository.findAllByOwnerId(lastOwner.getId(), pageOf(size)));
+    }
+
+    @Test
+    void findAllBorrowedBooks_shouldUseConstantQueryCount() {
+        assertConstantQueryCount(size -> historyRepository.findAllBorrowedBooks(pageOf(size), borrower.getId()));
+    }
+
+    @Test
+    void findAllReturnedBooks_shouldUseConstantQueryCount() {
+        assertConstantQueryCount(size -> historyRepository.findAllReturnedBooks(pageOf(size), lastOwner.getId()));
+    }
+
+    private void assertConstantQueryCount(IntFunction<?> pageLoader) {
+        long smallPage = countStatements(() -> pageLoader.apply(2));
+        long largePage = countStatements(() -> pageLoader.apply(BOOKS - 1));
+
+        assertEquals(smallPage, largePage);
+        // One SELECT for the content plus at most one COUNT
+        assertTrue(largePage <= 2, "Expected at most 2 statements but was " + largePage);
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static PageRequest pageOf(int size) {
+        return PageRequest.of(0, size, Sort.by("createdDate").descending());
+    }
+
+    private User saveUser(String name) {
+        User user = new User();
+        user.setEmail(name + "@mail.com");
+        user.setFirstname(name);
+        user.setLastname("Doe");
+        user.setPassword("password");
+        return userRepository.save(user);
+    }
+}
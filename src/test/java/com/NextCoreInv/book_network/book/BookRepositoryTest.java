@@ -0,0 +1,160 @@
+package com.NextCoreInv.book_network.book;
+
+import com.NextCoreInv.book_network.feedback.FeedBackRepository;
+import com.NextCoreInv.book_network.feedback.Feedback;
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TestJpaConfig.class)
+@Sql(scripts = {"/test-data.sql"})
+public class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private FeedBackRepository feedBackRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void addRating_shouldAccumulateNotes() {
+        Book book = saveBook();
+
+        bookRepository.addRating(book.getId(), 4.0);
+        bookRepository.addRating(book.getId(), 5.0);
+        entityManager.clear();
+
+        Book reloaded = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(2, reloaded.getRatingCount());
+        assertEquals(4.5, reloaded.getRate());
+    }
+
+    @Test
+    void rebuildRatings_shouldRecomputeAggregateFromFeedbacks() {
+        Book book = saveBook();
+        Book unrated = saveBook();
+        feedBackRepository.save(Feedback.builder().note(3.0).comment("ok").book(book).build());
+        feedBackRepository.save(Feedback.builder().note(4.0).comment("good").book(book).build());
+        entityManager.flush();
+
+        bookRepository.rebuildRatings();
+        entityManager.clear();
+
+        assertEquals(3.5, bookRepository.findById(book.getId()).orElseThrow().getRate());
+        assertEquals(0, bookRepository.findById(unrated.getId()).orElseThrow().getRatingCount());
+    }
+
+    @Test
+    void findDisplayableBooksSliceAfter_shouldWalkEveryBookOnce() {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Book book = saveBook();
+            book.setShareable(true);
+            expected.add(book.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Integer> seen = new ArrayList<>();
+        Slice<BookView> slice = bookRepository.findDisplayableBooksSlice(PageRequest.ofSize(2));
+        seen.addAll(slice.map(BookView::id).getContent());
+        while (slice.hasNext()) {
+            BookView last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            slice = bookRepository.findDisplayableBooksSliceAfter(last.createdDate(), last.id(), PageRequest.ofSize(2));
+            seen.addAll(slice.map(BookView::id).getContent());
+        }
+
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void findAllViews_shouldMatchAuthorPrefixIgnoringCaseAndWildcards() {
+        Book tolkien = saveDisplayableBook("J.R.R. Tolkien");
+        saveDisplayableBook("Leo Tolstoy");
+        Book percent = saveDisplayableBook("100% Pure");
+        saveDisplayableBook("1000 Days");
+        entityManager.flush();
+        entityManager.clear();
+
+        PageRequest pageable = PageRequest.of(0, 10);
+        assertEquals(List.of(tolkien.getId()), bookRepository.findAllViews(
+                BookSpecification.of(filterOnAuthor("j.r.r. tol"), null), pageable).map(BookView::id).getContent());
+        assertEquals(List.of(percent.getId()), bookRepository.findAllViews(
+                BookSpecification.of(filterOnAuthor("100%"), null), pageable).map(BookView::id).getContent());
+    }
+
+    @Test
+    void findAllViews_shouldListOwnArchivedBooksAboveMinRate() {
+        Book rated = saveBook();
+        rated.setArchived(true);
+        rated.setRatingSum(9.0);
+        rated.setRatingCount(2);
+        Book poorlyRated = saveBook();
+        poorlyRated.setOwner(rated.getOwner());
+        poorlyRated.setArchived(true);
+        poorlyRated.setRatingSum(3.0);
+        poorlyRated.setRatingCount(1);
+        Book someoneElses = saveBook();
+        someoneElses.setArchived(true);
+        someoneElses.setRatingSum(5.0);
+        someoneElses.setRatingCount(1);
+        entityManager.flush();
+        entityManager.clear();
+
+        BookFilter filter = new BookFilter(null, null, 4.0, null, true, null);
+        Page<BookView> books = bookRepository.findAllViews(
+                BookSpecification.of(filter, rated.getOwner().getId()), PageRequest.of(0, 10));
+
+        assertEquals(List.of(rated.getId()), books.map(BookView::id).getContent());
+        assertEquals(1, books.getTotalElements());
+    }
+
+    private static BookFilter filterOnAuthor(String author) {
+        return new BookFilter(author, null, null, null, null, null);
+    }
+
+    private Book saveDisplayableBook(String author) {
+        Book book = saveBook();
+        book.setAuthorName(author);
+        book.setShareable(true);
+        return book;
+    }
+
+    private Book saveBook() {
+        User owner = new User();
+        owner.setEmail("owner-" + System.nanoTime() + "@mail.com");
+        owner.setFirstname("John");
+        owner.setLastname("Doe");
+        owner.setPassword("password");
+        userRepository.save(owner);
+
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthorName("Test Author");
+        book.setIsbn("1234567890");
+        book.setOwner(owner);
+        return bookRepository.save(book);
+    }
+}
@@ -0,0 +1,105 @@
+package com.NextCoreInv.book_network.book;
+
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the native full-text search query against an embedded PostgreSQL migrated by Flyway,
+ * with Hibernate validating the entities against the migrated schema.
+ * Run with {@code mvn verify -Pintegration-test}.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestJpaConfig.class, BookSearchIT.EmbeddedPostgresConfig.class})
+public class BookSearchIT {
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setEmail("owner@mail.com");
+        owner.setFirstname("John");
+        owner.setLastname("Doe");
+        owner.setPassword("password");
+        owner = userRepository.save(owner);
+    }
+
+    @Test
+    void searchDisplayableBooks_shouldRankTitleMatchesFirst() {
+        saveBook("A Journey Home", "Jane Austen", "Sailing across the ocean", false);
+        saveBook("Ocean Sailing", "Herman Melville", "A long journey", false);
+        saveBook("Ocean Archive", "Somebody", "Archived books are not searchable", true);
+        saveBook("Gardening", "Anyone", "Plants and flowers", false);
+        bookRepository.flush();
+
+        Page<BookSearchView> results = bookRepository.searchDisplayableBooks("ocean sailing", PageRequest.of(0, 10));
+
+        assertEquals(List.of("Ocean Sailing", "A Journey Home"), results.map(BookSearchView::getTitle).getContent());
+        assertEquals(2, results.getTotalElements());
+        assertEquals("John", results.getContent().get(0).getOwnerFirstname());
+    }
+
+    @Test
+    void searchDisplayableBooks_shouldSupportStemmingAndExclusions() {
+        saveBook("Running Wild", "Jane Austen", "", false);
+        saveBook("Runner Up", "Melville", "runs everywhere", false);
+        bookRepository.flush();
+
+        assertEquals(2, bookRepository.searchDisplayableBooks("run", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(List.of("Running Wild"), bookRepository.searchDisplayableBooks("run -melville", PageRequest.of(0, 10))
+                .map(BookSearchView::getTitle).getContent());
+    }
+
+    private void saveBook(String title, String author, String synopsis, boolean archived) {
+        bookRepository.save(Book.builder()
+                .title(title)
+                .authorName(author)
+                .isbn("978-0-00-000000-0")
+                .synopsis(synopsis)
+                .shareable(true)
+                .archived(archived)
+                .owner(owner)
+                .build());
+    }
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
@@ -14,14 +14,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +43,8 @@ public class BookServiceTest {
     @Mock
     private BookMapper bookMapper;
     @Mock
+    private DisplayableBookCounter displayableBookCounter;
+    @Mock
     private Authentication authentication;
 
     @Test
@@ -76,24 +82,70 @@ public class BookServiceTest {
     }
 
     @Test
-    void findAllBooks_shouldReturnPageOfBooks() {
-        Page<Book> page = new PageImpl<>(Collections.singletonList(Book.builder().id(1).build()));
-        when(bookRepository.findAllDisplayableBooks(any(Pageable.class))).thenReturn(page);
-        when(bookMapper.toBookResponse(any(Book.class))).thenReturn(BookResponse.builder().id(1).build());
+    void findBookCover_shouldThrowException_whenBookHasNoCover() {
+        when(bookRepository.findById(1)).thenReturn(Optional.of(Book.builder().id(1).build()));
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.findBookCover(1, CoverSize.ORIGINAL));
+    }
+
+    @Test
+    void findAllBooks_shouldReturnPageOfBooks_withTotalFromCounter() {
+        when(bookRepository.findAllDisplayableBooks(any(Pageable.class))).thenReturn(List.of(bookView(1)));
+        when(displayableBookCounter.get()).thenReturn(25L);
+        when(bookMapper.toBookResponse(any(BookView.class))).thenReturn(BookResponse.builder().id(1).build());
 
         PageResponse<BookResponse> result = bookService.findAllBooks(0, 10);
 
         assertEquals(1, result.getContent().size());
-        assertEquals(1, result.getTotalElements());
+        assertEquals(25, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+    }
+
+    @Test
+    void findAllBooks_shouldRejectMinRateAlone() {
+        BookFilter filter = new BookFilter(null, null, 4.0, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.findAllBooks(filter, 0, 10, authentication));
+    }
+
+    @Test
+    void findAllBooks_shouldFilterOnSpecification_whenMinRateIsCombinedWithAuthor() {
+        BookFilter filter = new BookFilter("tolkien", null, 4.0, null, null, null);
+        when(bookRepository.findAllViews(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(bookView(1))));
+        when(bookMapper.toBookResponse(any(BookView.class))).thenReturn(BookResponse.builder().id(1).build());
+
+        PageResponse<BookResponse> result = bookService.findAllBooks(filter, 0, 10, authentication);
+
+        assertEquals(1, result.getContent().size());
+        verify(bookRepository).findAllViews(any(), argThat(pageable -> pageable.getSort().isSorted()));
+    }
+
+    @Test
+    void searchBooks_shouldRejectBlankOrOversizedQuery() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.searchBooks("  ", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> bookService.searchBooks("x".repeat(201), 0, 10));
+    }
+
+    @Test
+    void UpdateArchiveStatus_shouldUpdateDisplayableCounter() {
+        User owner = User.builder().id(1).build();
+        Book book = Book.builder().id(1).owner(owner).shareable(true).build();
+        when(authentication.getPrincipal()).thenReturn(owner);
+        when(bookRepository.findById(1)).thenReturn(Optional.of(book));
+
+        bookService.UpdateArchiveStatus(1, authentication);
+
+        assertTrue(book.isArchived());
+        verify(displayableBookCounter).onChange(true, false);
     }
 
     @Test
     void findAllBooksByOwner_shouldReturnPageOfBooks() {
         User user = User.builder().id(1).build();
-        Page<Book> page = new PageImpl<>(Collections.singletonList(Book.builder().id(1).build()));
+        Page<BookView> page = new PageImpl<>(Collections.singletonList(bookView(1)));
         when(authentication.getPrincipal()).thenReturn(user);
-        when(bookRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
-        when(bookMapper.toBookResponse(any(Book.class))).thenReturn(BookResponse.builder().id(1).build());
+        when(bookRepository.findAllByOwnerId(eq(1), any(Pageable.class))).thenReturn(page);
+        when(bookMapper.toBookResponse(any(BookView.class))).thenReturn(BookResponse.builder().id(1).build());
 
         PageResponse<BookResponse> result = bookService.findAllBooksByOwner(0, 10, authentication);
 
@@ -104,10 +156,10 @@ public class BookServiceTest {
     @Test
     void findAllBorrowedBooks_shouldReturnPageOfBorrowedBooks() {
         User user = User.builder().id(1).build();
-        Page<BookTransactionHistory> page = new PageImpl<>(Collections.singletonList(BookTransactionHistory.builder().id(1).build()));
+        Page<BorrowedBookView> page = new PageImpl<>(Collections.singletonList(borrowedBookView(1)));
         when(authentication.getPrincipal()).thenReturn(user);
         when(bookTransactionHistoryRepository.findAllBorrowedBooks(any(Pageable.class), any(Integer.class))).thenReturn(page);
-        when(bookMapper.toBorrowedBookResponse(any(BookTransactionHistory.class))).thenReturn(BorrowedBookResponse.builder().id(1).build());
+        when(bookMapper.toBorrowedBookResponse(any(BorrowedBookView.class))).thenReturn(BorrowedBookResponse.builder().id(1).build());
 
         PageResponse<BorrowedBookResponse> result = bookService.findAllBorrowedBooks(0, 10, authentication);
 
@@ -118,14 +170,45 @@ public class BookServiceTest {
     @Test
     void findAllReturnedBooks_shouldReturnPageOfReturnedBooks() {
         User user = User.builder().id(1).build();
-        Page<BookTransactionHistory> page = new PageImpl<>(Collections.singletonList(BookTransactionHistory.builder().id(1).build()));
+        Page<BorrowedBookView> page = new PageImpl<>(Collections.singletonList(borrowedBookView(1)));
         when(authentication.getPrincipal()).thenReturn(user);
         when(bookTransactionHistoryRepository.findAllReturnedBooks(any(Pageable.class), any(Integer.class))).thenReturn(page);
-        when(bookMapper.toBorrowedBookResponse(any(BookTransactionHistory.class))).thenReturn(BorrowedBookResponse.builder().id(1).build());
+        when(bookMapper.toBorrowedBookResponse(any(BorrowedBookView.class))).thenReturn(BorrowedBookResponse.builder().id(1).build());
 
         PageResponse<BorrowedBookResponse> result = bookService.findAllReturnedBooks(0, 10, authentication);
 
         assertEquals(1, result.getContent().size());
         assertEquals(1, result.getTotalElements());
     }
+
+    @Test
+    void approveReturnBorrowedBooks_shouldReportResultPerBook() {
+        User owner = User.builder().id(1).build();
+        Book returnedBook = Book.builder().id(1).owner(owner).shareable(true).build();
+        Book archivedBook = Book.builder().id(2).owner(owner).shareable(true).archived(true).build();
+        BookTransactionHistory loan = BookTransactionHistory.builder()
+                .id(10).book(returnedBook).returned(true).activeBookId(1).build();
+
+        when(authentication.getPrincipal()).thenReturn(owner);
+        when(bookRepository.findAllWithOwnerByIdIn(any())).thenReturn(List.of(returnedBook, archivedBook));
+        when(bookTransactionHistoryRepository.findAllByBookIdsAndOwnerId(any(), eq(1))).thenReturn(List.of(loan));
+
+        List<BookBatchResult> results = bookService.approveReturnBorrowedBooks(List.of(1, 2, 3, 1), authentication);
+
+        assertEquals(List.of(1, 2, 3), results.stream().map(BookBatchResult::getBookId).toList());
+        assertEquals(10, results.get(0).getTransactionId());
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(2).getError());
+        assertTrue(loan.isReturnApproved());
+        assertNull(loan.getActiveBookId());
+        verify(bookTransactionHistoryRepository).saveAllAndFlush(argThat(saved -> List.copyOf((Collection<?>) saved).equals(List.of(loan))));
+    }
+
+    private static BookView bookView(Integer id) {
+        return new BookView(id, "title", "author", "isbn", "synopsis", "John", "Doe", null, 0, 0, false, true, null);
+    }
+
+    private static BorrowedBookView borrowedBookView(Integer id) {
+        return new BorrowedBookView(id, "title", "author", "isbn", 0, 0, false, false, id, null);
+    }
 }
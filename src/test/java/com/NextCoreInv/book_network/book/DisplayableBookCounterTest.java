@@ -0,0 +1,84 @@
+package com.NextCoreInv.book_network.book;
+
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestJpaConfig.class, DisplayableBookCounter.class})
+@Sql(scripts = {"/test-data.sql"})
+public class DisplayableBookCounterTest {
+
+    @Autowired
+    private DisplayableBookCounter displayableBookCounter;
+    @Autowired
+    private BookCounterRepository bookCounterRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setEmail("owner@mail.com");
+        owner.setFirstname("owner");
+        owner.setLastname("Doe");
+        owner.setPassword("password");
+        owner = userRepository.save(owner);
+    }
+
+    @Test
+    void get_shouldRebuildFromCount_whenCounterIsMissing() {
+        saveBook(true, false);
+        saveBook(true, true);
+        saveBook(false, false);
+
+        assertEquals(1, displayableBookCounter.get());
+        assertEquals(1, bookCounterRepository.findTotal(BookCounter.DISPLAYABLE).orElseThrow());
+    }
+
+    @Test
+    void onChange_shouldApplyDeltas_withoutCountingAgain() {
+        assertEquals(0, displayableBookCounter.get());
+        // Books that never reach the table: only the deltas move the counter from here on
+        displayableBookCounter.onChange(false, true);
+        displayableBookCounter.onChange(false, true);
+        displayableBookCounter.onChange(true, false);
+        displayableBookCounter.onChange(true, true);
+
+        assertEquals(1, displayableBookCounter.get());
+    }
+
+    @Test
+    void onChange_shouldRebuildFromCount_whenCounterIsMissing() {
+        saveBook(true, false);
+
+        displayableBookCounter.onChange(false, true);
+
+        assertEquals(1, displayableBookCounter.get());
+    }
+
+    private void saveBook(boolean shareable, boolean archived) {
+        bookRepository.save(Book.builder()
+                .title("Test Book")
+                .authorName("Test Author")
+                .isbn("1234567890")
+                .shareable(shareable)
+                .archived(archived)
+                .owner(owner)
+                .build());
+    }
+}
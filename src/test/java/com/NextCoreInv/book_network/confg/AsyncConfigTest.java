@@ -0,0 +1,40 @@
+package com.NextCoreInv.book_network.confg;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class AsyncConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(AsyncConfig.class);
+
+    @Test
+    void defaultAsyncExecutor_shouldBeItsOwnPlatformPool_withoutVirtualThreads() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=false").run(context -> {
+            Object taskExecutor = context.getBean("taskExecutor");
+            assertInstanceOf(ThreadPoolTaskExecutor.class, taskExecutor);
+            assertNotSame(context.getBean("coverRenditionExecutor"), taskExecutor);
+            assertNotSame(context.getBean("mailExecutor"), taskExecutor);
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void defaultAsyncExecutor_shouldUseVirtualThreads_whenEnabled() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            assertInstanceOf(SimpleAsyncTaskExecutor.class, context.getBean("taskExecutor"));
+            // Mail keeps its platform threads
+            assertInstanceOf(ThreadPoolTaskExecutor.class, context.getBean("mailExecutor"));
+        });
+    }
+}
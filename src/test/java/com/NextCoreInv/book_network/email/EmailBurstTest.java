@@ -0,0 +1,104 @@
+package com.NextCoreInv.book_network.email;
+
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A burst of registrations: every activation email is delivered, over no more SMTP connections
+ * than the pool allows.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestJpaConfig.class, EmailService.class, EmailTemplateRenderer.class, EmailDispatcher.class,
+        EmailBurstTest.MailTestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmailBurstTest {
+
+    private static final int REGISTRATIONS = 1000;
+    private static final int MAX_CONNECTIONS = 2;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+    @Autowired
+    private PooledJavaMailSender mailSender;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void sendEmail_shouldDeliverEveryEmailOfABurst_overPooledConnections() throws InterruptedException {
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            emailService.sendEmail("user" + i + "@mail.com", "User " + i, EmailTemplateName.ACTIVATE_ACCOUNT,
+                    "http://localhost:4200/activate-account", String.format("%06d", i), "Account Activation");
+        }
+
+        assertTrue(greenMail.waitForIncomingEmail(60_000, REGISTRATIONS));
+        assertEquals(REGISTRATIONS, greenMail.getReceivedMessages().length);
+        assertTrue(mailSender.getOpenedConnections() <= MAX_CONNECTIONS,
+                "opened " + mailSender.getOpenedConnections() + " connections");
+        long deadline = System.currentTimeMillis() + 10_000;
+        // The outbox rows are marked after the last message of their batch is accepted
+        while (!outboxRepository.findDueIds(LocalDateTime.now().plusYears(1), PageRequest.ofSize(1)).isEmpty()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(REGISTRATIONS, outboxRepository.findAll().stream()
+                .filter(email -> email.getStatus() == EmailOutboxStatus.SENT)
+                .count());
+    }
+
+    @TestConfiguration
+    static class MailTestConfig {
+
+        @Bean
+        PooledJavaMailSender javaMailSender() {
+            PooledJavaMailSender mailSender = new PooledJavaMailSender(MAX_CONNECTIONS, Duration.ofMinutes(1), Duration.ofSeconds(10));
+            mailSender.setHost("localhost");
+            mailSender.setPort(ServerSetupTest.SMTP.getPort());
+            return mailSender;
+        }
+
+        @Bean
+        ThreadPoolTaskExecutor mailExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(MAX_CONNECTIONS);
+            executor.setMaxPoolSize(MAX_CONNECTIONS);
+            executor.setQueueCapacity(100);
+            return executor;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
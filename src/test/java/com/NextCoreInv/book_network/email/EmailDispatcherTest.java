@@ -0,0 +1,154 @@
+package com.NextCoreInv.book_network.email;
+
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivers outbox emails to an in-process SMTP server. Runs outside the test transaction
+ * so the after-commit delivery fires.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestJpaConfig.class, EmailService.class, EmailTemplateRenderer.class, EmailDispatcher.class,
+        EmailDispatcherTest.MailTestConfig.class})
+@TestPropertySource(properties = {
+        "application.mailing.outbox.max-attempts=2",
+        "application.mailing.outbox.initial-backoff=30s"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void sendEmail_shouldDeliverActivationEmail_onceQueued() throws Exception {
+        emailService.sendEmail("john@mail.com", "John Doe", EmailTemplateName.ACTIVATE_ACCOUNT,
+                "http://localhost:4200/activate-account", "123456", "Account Activation");
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("Account Activation", received[0].getSubject());
+        assertTrue(GreenMailUtil.getBody(received[0]).contains("123456"));
+        EmailOutbox email = outboxRepository.findAll().get(0);
+        assertEquals(EmailOutboxStatus.SENT, email.getStatus());
+    }
+
+    @Test
+    void dispatch_shouldRetryWithBackoff_thenGiveUp_whileSmtpIsDown() {
+        greenMail.stop();
+        emailService.sendEmail("john@mail.com", "John Doe", EmailTemplateName.ACTIVATE_ACCOUNT,
+                "http://localhost:4200/activate-account", "123456", "Account Activation");
+
+        EmailOutbox email = outboxRepository.findAll().get(0);
+        assertEquals(EmailOutboxStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+
+        // Not due yet: the poller leaves it alone
+        emailDispatcher.dispatchDueEmails();
+        assertEquals(1, outboxRepository.findById(email.getId()).orElseThrow().getAttempts());
+
+        makeDue(email);
+        emailDispatcher.dispatchDueEmails();
+        EmailOutbox failed = outboxRepository.findById(email.getId()).orElseThrow();
+        assertEquals(EmailOutboxStatus.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+    }
+
+    @Test
+    void dispatchDueEmails_shouldDeliverPendingEmail_onceSmtpIsBack() {
+        greenMail.stop();
+        emailService.sendEmail("john@mail.com", "John Doe", EmailTemplateName.ACTIVATE_ACCOUNT,
+                "http://localhost:4200/activate-account", "123456", "Account Activation");
+        greenMail.start();
+
+        makeDue(outboxRepository.findAll().get(0));
+        emailDispatcher.dispatchDueEmails();
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(EmailOutboxStatus.SENT, outboxRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void backoff_shouldDoubleUpToTheMaximum() {
+        assertEquals(Duration.ofSeconds(30), emailDispatcher.backoff(1));
+        assertEquals(Duration.ofMinutes(2), emailDispatcher.backoff(3));
+        assertEquals(Duration.ofHours(1), emailDispatcher.backoff(20));
+    }
+
+    private void makeDue(EmailOutbox email) {
+        EmailOutbox reloaded = outboxRepository.findById(email.getId()).orElseThrow();
+        reloaded.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(reloaded);
+    }
+
+    @TestConfiguration
+    static class MailTestConfig {
+
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("localhost");
+            mailSender.setPort(ServerSetupTest.SMTP.getPort());
+            return mailSender;
+        }
+
+        // Each delivery runs on its own thread, like on the real pool, but the test waits for it
+        @Bean
+        TaskExecutor mailExecutor() {
+            return task -> {
+                Thread delivery = new Thread(task);
+                delivery.start();
+                try {
+                    delivery.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.NextCoreInv.book_network.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmailTemplateRendererTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailTemplateRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        renderer = new EmailTemplateRenderer(meterRegistry, 16, 200);
+        renderer.warmUp();
+    }
+
+    @Test
+    void warmUp_shouldParseEveryTemplateOnce() {
+        assertEquals(EmailTemplateName.values().length, renderer.cachedTemplates());
+        assertEquals(0, meterRegistry.get("email.template.render").tag("template", "activate_account").timer().count());
+    }
+
+    @Test
+    void render_shouldFillTheTemplate_andRecordTimeAndSize() {
+        String html = renderer.render(EmailTemplateName.ACTIVATE_ACCOUNT, Map.of(
+                "username", "John Doe",
+                "confirmationUrl", "http://localhost:4200/activate-account",
+                "activation_code", "123456"
+        ));
+
+        assertTrue(html.contains("Hello John Doe,"));
+        assertTrue(html.contains("123456"));
+        assertTrue(html.contains("href=\"http://localhost:4200/activate-account\""));
+        assertEquals(1, meterRegistry.get("email.template.render").tag("template", "activate_account").timer().count());
+        assertEquals(html.getBytes(UTF_8).length, meterRegistry.get("email.template.size").tag("template", "activate_account").summary().totalAmount());
+        assertEquals(EmailTemplateName.values().length, renderer.cachedTemplates());
+    }
+}
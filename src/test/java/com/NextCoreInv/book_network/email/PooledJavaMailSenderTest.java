@@ -0,0 +1,83 @@
+package com.NextCoreInv.book_network.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PooledJavaMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private PooledJavaMailSender mailSender;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new PooledJavaMailSender(2, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailSender.destroy();
+    }
+
+    @Test
+    void send_shouldReuseOneConnection_acrossSendsAndBatches() throws MessagingException {
+        mailSender.send(message(1));
+        mailSender.send(message(2));
+        mailSender.send(message(3), message(4), message(5));
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(1, mailSender.getOpenedConnections());
+        assertEquals(1, mailSender.getIdleConnections());
+    }
+
+    @Test
+    void evictIdleConnections_shouldCloseConnectionsIdleForTooLong() throws MessagingException {
+        mailSender = new PooledJavaMailSender(2, Duration.ZERO, Duration.ofSeconds(5));
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.send(message(1));
+
+        mailSender.evictIdleConnections();
+
+        assertEquals(0, mailSender.getIdleConnections());
+    }
+
+    @Test
+    void send_shouldReconnect_whenServerDroppedThePooledConnection() throws MessagingException {
+        mailSender.send(message(1));
+        greenMail.stop();
+        assertThrows(MailSendException.class, () -> mailSender.send(message(2)));
+        greenMail.start();
+
+        mailSender.send(message(3));
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(2, mailSender.getOpenedConnections());
+    }
+
+    private MimeMessage message(int number) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage);
+        helper.setFrom("noreply@mail.com");
+        helper.setTo("user" + number + "@mail.com");
+        helper.setSubject("Message " + number);
+        helper.setText("Hello");
+        return mimeMessage;
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +52,7 @@ public class FeedbackServiceTest {
         Integer feedbackId = feedbackService.save(request, authentication);
 
         assertEquals(1, feedbackId);
+        verify(bookRepository).addRating(1, 5.0);
     }
 
     @Test
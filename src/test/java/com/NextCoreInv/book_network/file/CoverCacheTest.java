@@ -0,0 +1,94 @@
+package com.NextCoreInv.book_network.file;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoverCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CoverCache coverCache;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        coverCache = new CoverCache(beanFactory.getBeanProvider(MeterRegistry.class));
+        ReflectionTestUtils.setField(coverCache, "enabled", true);
+        ReflectionTestUtils.setField(coverCache, "maxSize", DataSize.ofKilobytes(8));
+        ReflectionTestUtils.setField(coverCache, "maxEntrySize", DataSize.ofKilobytes(4));
+        ReflectionTestUtils.setField(coverCache, "offHeap", true);
+        coverCache.init();
+    }
+
+    @Test
+    void load_shouldServeFromMemory_untilFileChanges() throws IOException {
+        Path cover = Files.write(directory.resolve("cover.jpg"), new byte[]{1, 2, 3});
+
+        Resource first = coverCache.load(new FileSystemResource(cover));
+        Resource second = coverCache.load(new FileSystemResource(cover));
+
+        assertInstanceOf(ByteBufferResource.class, first);
+        assertArrayEquals(new byte[]{1, 2, 3}, read(first));
+        assertArrayEquals(new byte[]{1, 2, 3}, read(second));
+        assertEquals(3, second.contentLength());
+        assertEquals(1.0, hits());
+
+        Files.write(cover, new byte[]{4, 5, 6, 7});
+        Files.setLastModifiedTime(cover, FileTime.fromMillis(first.lastModified() + 1_000));
+
+        assertArrayEquals(new byte[]{4, 5, 6, 7}, read(coverCache.load(new FileSystemResource(cover))));
+        assertEquals(1.0, hits());
+    }
+
+    @Test
+    void load_shouldStreamFromDisk_whenFileIsTooLargeToCache() throws IOException {
+        Path cover = Files.write(directory.resolve("large.jpg"), new byte[5 * 1024]);
+
+        assertInstanceOf(FileSystemResource.class, coverCache.load(new FileSystemResource(cover)));
+    }
+
+    @Test
+    void load_shouldEvict_whenResidentBytesExceedMaxSize() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            Path cover = Files.write(directory.resolve("cover" + i + ".jpg"), new byte[3 * 1024]);
+            coverCache.load(new FileSystemResource(cover));
+        }
+        ((Cache<?, ?>) ReflectionTestUtils.getField(coverCache, "covers")).cleanUp();
+
+        double resident = meterRegistry.get("cache.resident.bytes").tag("cache", "bookCovers").gauge().value();
+        assertTrue(resident <= 8 * 1024, "Resident bytes " + resident);
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", "bookCovers").tag("result", "hit").functionCounter().count();
+    }
+
+    private static byte[] read(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
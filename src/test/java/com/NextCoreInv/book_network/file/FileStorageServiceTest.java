@@ -0,0 +1,186 @@
+package com.NextCoreInv.book_network.file;
+
+import com.NextCoreInv.book_network.Exception.OperationNotPermittedExeption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FileStorageServiceTest {
+
+    private static final int PARALLEL_UPLOADS = 50;
+    private static final long UPLOAD_SIZE = 8L * 1024 * 1024;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xDB};
+
+    @TempDir
+    Path uploadRoot;
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new FileStorageService(new LocalCoverStore(uploadRoot.toString()));
+        ReflectionTestUtils.setField(fileStorageService, "fileUploadingPath", uploadRoot.toString());
+    }
+
+    @Test
+    void saveFile_shouldKeyFilesByContentHash_andDeduplicate() throws IOException {
+        String first = fileStorageService.saveFile(new MockMultipartFile("file", "cover.PNG", "image/png", png(1, 2, 3)));
+        String same = fileStorageService.saveFile(new MockMultipartFile("file", "other.png", "image/png", png(1, 2, 3)));
+        String other = fileStorageService.saveFile(new MockMultipartFile("file", "cover.png", "image/png", png(4, 5, 6)));
+
+        assertEquals(first, same);
+        assertNotEquals(first, other);
+        // SHA-256 of the PNG signature followed by {1, 2, 3}, sharded by its first two bytes
+        assertEquals("covers/7f/47/7f47b756761a46e6d4a4d96f0d8a4448f8449235009d1f3ad1493f5c773c19e8.png", first);
+        assertEquals(2, storedFiles().size());
+        assertArrayEquals(png(1, 2, 3), fileStorageService.loadFile(first).getContentAsByteArray());
+    }
+
+    @Test
+    void saveFile_shouldTakeExtensionFromContent_notFromFileName() {
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0, 1};
+        byte[] webp = {'R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'E', 'B', 'P', 'V', 'P', '8', ' '};
+
+        assertTrue(fileStorageService.saveFile(new MockMultipartFile("file", "cover.png", "image/png", jpeg)).endsWith(".jpg"));
+        assertTrue(fileStorageService.saveFile(new MockMultipartFile("file", "cover", null, webp)).endsWith(".webp"));
+    }
+
+    @Test
+    void saveFile_shouldRejectContentThatIsNotAnAcceptedImage() {
+        byte[] html = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.UTF_8);
+        byte[] gif = "GIF89a\u0001\u0000\u0001\u0000".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertThrows(OperationNotPermittedExeption.class,
+                () -> fileStorageService.saveFile(new MockMultipartFile("file", "cover.png", "image/png", html)));
+        assertThrows(OperationNotPermittedExeption.class,
+                () -> fileStorageService.saveFile(new MockMultipartFile("file", "cover.gif", "image/gif", gif)));
+        assertThrows(OperationNotPermittedExeption.class,
+                () -> fileStorageService.saveFile(new MockMultipartFile("file", "cover.jpg", "image/jpeg", new byte[0])));
+        // Rejected before anything is staged
+        assertFalse(Files.exists(uploadRoot.resolve("staging")));
+        assertFalse(Files.exists(uploadRoot.resolve("covers")));
+    }
+
+    @Test
+    void saveRendition_shouldStoreJpegNextToCover_once() throws IOException {
+        String cover = fileStorageService.saveFile(new MockMultipartFile("file", "cover.png", "image/png", png(1, 2, 3)));
+        BufferedImage image = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+
+        String thumbnail = fileStorageService.saveRendition(cover, "thumbnail", image, 160);
+
+        assertEquals(cover.replace(".png", "-thumbnail.jpg"), thumbnail);
+        assertEquals(thumbnail, fileStorageService.saveRendition(cover, "thumbnail", image, 160));
+        assertEquals(2, storedFiles().size());
+    }
+
+    @Test
+    void saveFile_shouldStreamLargeUploads_withoutBufferingThemOnTheHeap() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_UPLOADS);
+        List<Future<Long>> uploads = new ArrayList<>();
+        for (int i = 0; i < PARALLEL_UPLOADS; i++) {
+            MultipartFile file = streamingFile(i);
+            uploads.add(executor.submit(() -> {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                assertNotNull(fileStorageService.saveFile(file));
+                return threads.getCurrentThreadAllocatedBytes() - before;
+            }));
+        }
+
+        for (Future<Long> upload : uploads) {
+            long allocated = upload.get();
+            // Each upload allocates a small, constant amount no matter how large the file is
+            assertTrue(allocated < UPLOAD_SIZE / 16, "Allocated " + allocated + " bytes for an upload of " + UPLOAD_SIZE);
+        }
+        executor.shutdown();
+
+        List<Path> stored = storedFiles();
+        assertEquals(PARALLEL_UPLOADS, stored.size());
+        for (Path path : stored) {
+            assertEquals(UPLOAD_SIZE, Files.size(path));
+        }
+    }
+
+    private static byte[] png(int... content) {
+        byte[] bytes = new byte[PNG_SIGNATURE.length + content.length];
+        System.arraycopy(PNG_SIGNATURE, 0, bytes, 0, PNG_SIGNATURE.length);
+        for (int i = 0; i < content.length; i++) {
+            bytes[PNG_SIGNATURE.length + i] = (byte) content[i];
+        }
+        return bytes;
+    }
+
+    private List<Path> storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadRoot.resolve("covers"))) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    // A large multipart file whose content is generated on the fly; getBytes() is never expected
+    private static MultipartFile streamingFile(int seed) throws IOException {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getOriginalFilename()).thenReturn("cover.jpg");
+        when(file.getInputStream()).thenAnswer(invocation -> new SequenceInputStream(
+                new ByteArrayInputStream(JPEG_SIGNATURE), new GeneratedInputStream(seed, UPLOAD_SIZE - JPEG_SIGNATURE.length)));
+        return file;
+    }
+
+    private static class GeneratedInputStream extends InputStream {
+
+        private final int seed;
+        private final long size;
+        private long position;
+
+        GeneratedInputStream(int seed, long size) {
+            this.seed = seed;
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            return position < size ? (int) ((position++ * 31 + seed) & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= size) {
+                return -1;
+            }
+            int count = (int) Math.min(length, size - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) ((position++ * 31 + seed) & 0xFF);
+            }
+            return count;
+        }
+    }
+}
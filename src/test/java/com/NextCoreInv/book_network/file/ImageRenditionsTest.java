@@ -0,0 +1,68 @@
+package com.NextCoreInv.book_network.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ImageRenditionsTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void writeScaled_shouldFitImageInBox_keepingAspectRatio() throws IOException {
+        Path source = folder.resolve("cover.png");
+        ImageIO.write(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_ARGB), "png", source.toFile());
+
+        BufferedImage image = ImageRenditions.readImage(new FileSystemResource(source), 2000);
+        Path thumbnail = folder.resolve("cover-thumbnail.jpg");
+        Path original = folder.resolve("cover-large.jpg");
+        ImageRenditions.writeScaled(image, thumbnail, 160);
+        ImageRenditions.writeScaled(image, original, 2000);
+
+        BufferedImage scaled = ImageIO.read(thumbnail.toFile());
+        assertEquals(160, scaled.getWidth());
+        assertEquals(80, scaled.getHeight());
+        // Never upscaled
+        assertEquals(1000, ImageIO.read(original.toFile()).getWidth());
+    }
+
+    @Test
+    void readImage_shouldReturnNull_whenFileIsNotAnImage() throws IOException {
+        Path source = Files.writeString(folder.resolve("cover.png"), "not an image");
+
+        assertNull(ImageRenditions.readImage(new FileSystemResource(source), 2000));
+    }
+
+    @Test
+    void readImage_shouldReturnNull_whenImageExceedsMaxDimension() throws IOException {
+        Path source = folder.resolve("cover.png");
+        ImageIO.write(new BufferedImage(1200, 10, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+
+        assertNull(ImageRenditions.readImage(new FileSystemResource(source), 1000));
+        assertEquals(1200, ImageRenditions.readImage(new FileSystemResource(source), 1200).getWidth());
+    }
+
+    @Test
+    void readImage_shouldRejectDecompressionBomb_fromItsHeader() throws IOException {
+        // A PNG header announcing 100000 x 100000 pixels, without the pixel data: decoding it would
+        // allocate tens of gigabytes, reading the header alone allocates nothing
+        Path source = folder.resolve("bomb.png");
+        ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+        byte[] png = Files.readAllBytes(source);
+        ByteBuffer.wrap(png, 16, 8).putInt(100_000).putInt(100_000);
+        Files.write(source, png);
+
+        assertNull(ImageRenditions.readImage(new FileSystemResource(source), 6000));
+    }
+}
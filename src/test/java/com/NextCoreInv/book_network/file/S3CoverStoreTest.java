@@ -0,0 +1,174 @@
+package com.NextCoreInv.book_network.file;
+
+import com.NextCoreInv.book_network.confg.S3StorageConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.DigestUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the S3 store, with the client built by {@link S3StorageConfig}, against a minimal in-process
+ * stand-in for an S3-compatible server (path-style PUT, GET and HEAD of objects).
+ */
+public class S3CoverStoreTest {
+
+    private static final String BUCKET = "book-covers";
+
+    @TempDir
+    Path staging;
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final AtomicInteger uploads = new AtomicInteger();
+    private HttpServer server;
+    private S3Client s3Client;
+    private S3CoverStore coverStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        s3Client = new S3StorageConfig().s3Client("http://localhost:" + server.getAddress().getPort(),
+                "us-east-1", "access", "secret", true);
+        coverStore = new S3CoverStore(s3Client, BUCKET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void put_shouldUploadStagedFileOnce_andLoadItBack() throws IOException {
+        String key = CoverKeys.forContent("ab".repeat(32), "png");
+
+        coverStore.put(key, Files.write(staging.resolve("first.tmp"), new byte[]{1, 2, 3}));
+        Path second = Files.write(staging.resolve("second.tmp"), new byte[]{1, 2, 3});
+        coverStore.put(key, second);
+
+        assertEquals(1, uploads.get());
+        assertFalse(Files.exists(second));
+        assertTrue(coverStore.exists(key));
+        Resource cover = coverStore.load(key);
+        assertEquals(3, cover.contentLength());
+        assertEquals("abababababababababababababababababababababababababababababababab.png", cover.getFilename());
+        try (InputStream in = cover.getInputStream()) {
+            assertArrayEquals(new byte[]{1, 2, 3}, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void load_shouldReturnNull_whenObjectOrLocalFileIsMissing() {
+        assertFalse(coverStore.exists("covers/00/00/missing.png"));
+        assertNull(coverStore.load("covers/00/00/missing.png"));
+        assertNull(coverStore.load("./uploads/users/1/legacy.png"));
+    }
+
+    @Test
+    void saveFile_shouldStoreUploadsUnderTheirContentKey() {
+        FileStorageService fileStorageService = new FileStorageService(coverStore);
+        ReflectionTestUtils.setField(fileStorageService, "fileUploadingPath", staging.toString());
+
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3};
+
+        String key = fileStorageService.saveFile(new MockMultipartFile("file", "cover.png", "image/png", png));
+
+        assertEquals("covers/7f/47/7f47b756761a46e6d4a4d96f0d8a4448f8449235009d1f3ad1493f5c773c19e8.png", key);
+        assertArrayEquals(png, objects.get("/" + BUCKET + "/" + key));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        byte[] object = objects.get(path);
+        switch (exchange.getRequestMethod()) {
+            case "PUT" -> {
+                byte[] body = readBody(exchange);
+                objects.put(path, body);
+                uploads.incrementAndGet();
+                // The client checks the ETag of a single-part upload against the MD5 of what it sent
+                exchange.getResponseHeaders().set("ETag", "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "HEAD" -> {
+                if (object == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                } else {
+                    exchange.getResponseHeaders().set("Last-Modified",
+                            DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC)));
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.length));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+            }
+            case "GET" -> {
+                if (object == null) {
+                    byte[] error = "<Error><Code>NoSuchKey</Code></Error>".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(404, error.length);
+                    exchange.getResponseBody().write(error);
+                } else {
+                    exchange.sendResponseHeaders(200, object.length);
+                    exchange.getResponseBody().write(object);
+                }
+            }
+            default -> exchange.sendResponseHeaders(405, -1);
+        }
+        exchange.close();
+    }
+
+    // Streaming uploads are sent with aws-chunked encoding: "<hex size>;chunk-signature=...\r\n<data>\r\n"
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        if (exchange.getRequestHeaders().getFirst("x-amz-decoded-content-length") == null) {
+            return body;
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int position = 0;
+        while (position < body.length) {
+            int lineEnd = indexOfCrlf(body, position);
+            String header = new String(body, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0], 16);
+            if (size == 0) {
+                break;
+            }
+            decoded.write(body, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return bytes.length;
+    }
+}
@@ -0,0 +1,27 @@
+package com.NextCoreInv.book_network.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BCryptStrengthCalibratorTest {
+
+    @Test
+    void calibrate_shouldPickHighestStrengthWithinTarget() {
+        // 40 ms at 10 -> 80 ms at 11 -> 160 ms at 12 -> 320 ms at 13
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(250), 10, 14, cost -> Duration.ofMillis(40));
+
+        assertEquals(12, strength);
+    }
+
+    @Test
+    void calibrate_shouldStayWithinBounds() {
+        assertEquals(10, BCryptStrengthCalibrator.calibrate(Duration.ofMillis(10), 10, 14, cost -> Duration.ofMillis(40)));
+        assertEquals(14, BCryptStrengthCalibrator.calibrate(Duration.ofSeconds(5), 10, 14, cost -> Duration.ofMillis(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> BCryptStrengthCalibrator.calibrate(Duration.ofMillis(250), 12, 10, cost -> Duration.ofMillis(1)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.role.Role;
+import com.NextCoreInv.book_network.user.UserTokenState;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtServiceTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdGluZy1qd3Qtc2lnbmF0dXJlcy0xMjM0NTY3ODkw";
+
+    private final UserDetails user = new User("john.doe@example.com", "password",
+            List.of(new SimpleGrantedAuthority("USER")));
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newJwtService(3_600_000);
+    }
+
+    @Test
+    void parseToken_shouldReturnCachedClaims_whenTokenAlreadyVerified() {
+        String token = jwtService.generateToken(user);
+
+        Claims claims = jwtService.parseToken(token);
+
+        assertEquals("john.doe@example.com", claims.getSubject());
+        assertSame(claims, jwtService.parseToken(token));
+        assertTrue(jwtService.isTokenValid(claims, user));
+    }
+
+    @Test
+    void parseToken_shouldThrowException_whenSignatureIsTampered() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtService.parseToken(tampered));
+    }
+
+    @Test
+    void parseToken_shouldThrowException_whenTokenIsExpired() {
+        String token = newJwtService(-1_000).generateToken(user);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseToken(token));
+    }
+
+    @Test
+    void toPrincipal_shouldRebuildUserFromClaims() {
+        com.NextCoreInv.book_network.user.User account = com.NextCoreInv.book_network.user.User.builder()
+                .id(42)
+                .email("john.doe@example.com")
+                .roles(List.of(Role.builder().name("USER").build()))
+                .enabled(true)
+                .build();
+
+        var principal = jwtService.toPrincipal(jwtService.parseToken(jwtService.generateToken(account)),
+                new UserTokenState(true, true, null));
+
+        assertEquals(42, principal.getId());
+        assertEquals("john.doe@example.com", principal.getUsername());
+        assertEquals(List.of("USER"), principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertTrue(principal.isEnabled());
+        assertFalse(principal.isAccountNonLocked());
+    }
+
+    @Test
+    void toPrincipal_shouldReturnNull_whenTokenHasNoUserId() {
+        assertNull(jwtService.toPrincipal(jwtService.parseToken(jwtService.generateToken(user)),
+                new UserTokenState(true, false, null)));
+    }
+
+    private static JwtService newJwtService(long expiration) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(service, "claimsCacheSize", 100L);
+        service.init();
+        return service;
+    }
+}
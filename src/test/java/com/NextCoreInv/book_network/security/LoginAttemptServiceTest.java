@@ -0,0 +1,107 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.user.UserDetailsChangedEvent;
+import com.NextCoreInv.book_network.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LoginAttemptServiceTest {
+
+    private static final String EMAIL = "John.Doe@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptService = new LoginAttemptService(userRepository, refreshTokenService, eventPublisher, meterRegistry);
+        ReflectionTestUtils.setField(loginAttemptService, "nanoClock", (LongSupplier) now::get);
+        ReflectionTestUtils.setField(loginAttemptService, "enabled", true);
+        ReflectionTestUtils.setField(loginAttemptService, "ipCapacity", 4);
+        ReflectionTestUtils.setField(loginAttemptService, "ipRefillPeriod", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(loginAttemptService, "emailCapacity", 2);
+        ReflectionTestUtils.setField(loginAttemptService, "emailRefillPeriod", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(loginAttemptService, "maxTrackedKeys", 100L);
+        ReflectionTestUtils.setField(loginAttemptService, "maxFailures", 3);
+        ReflectionTestUtils.setField(loginAttemptService, "failureWindow", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(loginAttemptService, "lockoutDuration", Duration.ofMinutes(15));
+        loginAttemptService.init();
+    }
+
+    @Test
+    void tryAcquire_shouldThrottlePerEmail_thenPerIp() {
+        assertTrue(loginAttemptService.tryAcquire("10.0.0.1", EMAIL).isEmpty());
+        // Same email whatever its case
+        assertTrue(loginAttemptService.tryAcquire("10.0.0.1", "john.doe@example.com").isEmpty());
+        assertEquals(Duration.ofSeconds(30), loginAttemptService.tryAcquire("10.0.0.1", EMAIL).orElseThrow());
+
+        // Spraying other emails from the same address
+        assertTrue(loginAttemptService.tryAcquire("10.0.0.1", "other@example.com").isEmpty());
+        assertTrue(loginAttemptService.tryAcquire("10.0.0.1", "another@example.com").isPresent());
+        assertTrue(loginAttemptService.tryAcquire("10.0.0.2", "another@example.com").isEmpty());
+
+        assertEquals(1.0, meterRegistry.get("security.login.attempts").tag("outcome", "throttled_email").counter().count());
+        assertEquals(1.0, meterRegistry.get("security.login.attempts").tag("outcome", "throttled_ip").counter().count());
+        assertEquals(4.0, meterRegistry.get("security.login.attempts").tag("outcome", "allowed").counter().count());
+    }
+
+    @Test
+    void onFailure_shouldLockAccount_afterMaxConsecutiveFailures() {
+        when(userRepository.lock(eq(EMAIL), any())).thenReturn(1);
+
+        loginAttemptService.onFailure(EMAIL);
+        loginAttemptService.onFailure(EMAIL);
+        loginAttemptService.onSuccess(EMAIL);
+        loginAttemptService.onFailure(EMAIL);
+        loginAttemptService.onFailure(EMAIL);
+        verify(userRepository, never()).lock(any(), any());
+
+        loginAttemptService.onFailure(EMAIL);
+
+        verify(userRepository, times(1)).lock(eq(EMAIL), any());
+        verify(refreshTokenService).revokeAll(EMAIL);
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent(EMAIL));
+        assertEquals(1.0, meterRegistry.get("security.login.lockouts").counter().count());
+    }
+
+    @Test
+    void unlockExpiredAccounts_shouldEvictUnlockedUsers() {
+        when(userRepository.findEmailsLockedBefore(any(LocalDateTime.class))).thenReturn(List.of(EMAIL));
+
+        loginAttemptService.unlockExpiredAccounts();
+
+        verify(userRepository).unlockLockedBefore(any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent(EMAIL));
+    }
+}
@@ -0,0 +1,196 @@
+package com.NextCoreInv.book_network.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LoginRateLimitFilterTest {
+
+    private static final String BODY = "{\"email\":\"john.doe@example.com\",\"password\":\"password\"}";
+
+    @Mock
+    private LoginAttemptService loginAttemptService;
+
+    @Test
+    void shouldReplayBodyToController_whenAttemptIsAllowed() throws Exception {
+        LoginRateLimitFilter filter = newFilter();
+        when(loginAttemptService.tryAcquire("10.0.0.1", "john.doe@example.com")).thenReturn(Optional.empty());
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(loginRequest(), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(BODY, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldReplayBodyToAsyncReaders() throws Exception {
+        ServletInputStream body = replayedBody();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        body.setReadListener(new RecordingReadListener(events, () -> {
+            while (body.isReady()) {
+                read.write(body.read());
+            }
+        }));
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+        assertFalse(body.isReady());
+    }
+
+    @Test
+    void shouldNotReportAllDataRead_untilAsyncReaderReachesTheEnd() throws Exception {
+        ServletInputStream body = replayedBody();
+        List<String> events = new ArrayList<>();
+
+        body.setReadListener(new RecordingReadListener(events, () -> body.readNBytes(5)));
+
+        assertEquals(List.of("data"), events);
+        assertTrue(body.isReady());
+
+        byte[] rest = body.readAllBytes();
+
+        assertEquals(BODY.substring(5), new String(rest, StandardCharsets.UTF_8));
+        assertEquals(List.of("data", "done"), events);
+    }
+
+    @Test
+    void shouldAnswer429_beforeReachingController_whenThrottled() throws Exception {
+        LoginRateLimitFilter filter = newFilter();
+        when(loginAttemptService.tryAcquire("10.0.0.1", "john.doe@example.com"))
+                .thenReturn(Optional.of(Duration.ofMillis(11_500)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(loginRequest(), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(429, response.getStatus());
+        assertEquals("12", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void shouldKeepSeparateBuckets_forClientsForwardedByTrustedProxy() throws Exception {
+        LoginRateLimitFilter filter = newFilter();
+        when(loginAttemptService.tryAcquire("203.0.113.5", "john.doe@example.com"))
+                .thenReturn(Optional.of(Duration.ofSeconds(30)));
+        when(loginAttemptService.tryAcquire("203.0.113.6", "john.doe@example.com")).thenReturn(Optional.empty());
+
+        MockHttpServletResponse throttled = new MockHttpServletResponse();
+        filter.doFilter(forwardedLoginRequest("127.0.0.1", "203.0.113.5"), throttled, new MockFilterChain());
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(forwardedLoginRequest("127.0.0.1", "203.0.113.6"), new MockHttpServletResponse(), chain);
+
+        assertEquals(429, throttled.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldIgnoreForwardedFor_writtenByClient() throws Exception {
+        LoginRateLimitFilter filter = newFilter();
+        when(loginAttemptService.tryAcquire(any(), any())).thenReturn(Optional.empty());
+
+        // Not sent through a trusted proxy
+        filter.doFilter(forwardedLoginRequest("10.0.0.1", "203.0.113.5"), new MockHttpServletResponse(), new MockFilterChain());
+        // Forged entries left of the one appended by the proxy
+        filter.doFilter(forwardedLoginRequest("127.0.0.1", "198.51.100.1, evil.example, 203.0.113.6"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(loginAttemptService).tryAcquire("10.0.0.1", "john.doe@example.com");
+        verify(loginAttemptService).tryAcquire("203.0.113.6", "john.doe@example.com");
+    }
+
+    @Test
+    void shouldIgnoreOtherEndpoints() throws Exception {
+        LoginRateLimitFilter filter = newFilter();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/register");
+        request.setServletPath("/auth/register");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(loginAttemptService);
+    }
+
+    private ServletInputStream replayedBody() throws Exception {
+        when(loginAttemptService.tryAcquire("10.0.0.1", "john.doe@example.com")).thenReturn(Optional.empty());
+        MockFilterChain chain = new MockFilterChain();
+        newFilter().doFilter(loginRequest(), new MockHttpServletResponse(), chain);
+        return chain.getRequest().getInputStream();
+    }
+
+    private LoginRateLimitFilter newFilter() {
+        LoginRateLimitFilter filter = new LoginRateLimitFilter(loginAttemptService, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "trustedProxies", List.of("127.0.0.1", "::1"));
+        filter.init();
+        return filter;
+    }
+
+    private static MockHttpServletRequest forwardedLoginRequest(String proxy, String forwardedFor) {
+        MockHttpServletRequest request = loginRequest();
+        request.setRemoteAddr(proxy);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+
+    private static MockHttpServletRequest loginRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/authentication");
+        request.setServletPath("/auth/authentication");
+        request.setRemoteAddr("10.0.0.1");
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private interface BodyReader {
+        void read() throws IOException;
+    }
+
+    private record RecordingReadListener(List<String> events, BodyReader reader) implements ReadListener {
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            events.add("data");
+            reader.read();
+        }
+
+        @Override
+        public void onAllDataRead() {
+            events.add("done");
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            events.add("error");
+        }
+    }
+}
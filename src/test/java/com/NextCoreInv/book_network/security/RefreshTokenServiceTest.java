@@ -0,0 +1,88 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.Exception.InvalidRefreshTokenException;
+import com.NextCoreInv.book_network.role.TestJpaConfig;
+import com.NextCoreInv.book_network.user.TokenRepository;
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestJpaConfig.class, RefreshTokenService.class, TokenRevocationService.class})
+public class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private TokenRepository tokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("john.doe@example.com")
+                .enabled(true)
+                .createdDate(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void rotate_shouldHandOutNextToken_andStoreOnlyHashes() {
+        String first = refreshTokenService.issue(user);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertEquals(user.getId(), rotation.user().getId());
+        assertNotEquals(first, rotation.refreshToken());
+        assertTrue(tokenRepository.findByToken(first).isEmpty());
+        assertEquals(user.getId(), refreshTokenService.rotate(rotation.refreshToken()).user().getId());
+    }
+
+    @Test
+    void rotate_shouldRevokeWholeFamily_whenTokenIsReused() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(first));
+        // The legitimate holder is logged out too
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(second));
+    }
+
+    @Test
+    void revokeAll_shouldRevokeRefreshTokens_andAccessTokensIssuedSoFar() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.issue(user);
+
+        refreshTokenService.revokeAll(user.getEmail());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(first));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(second));
+        assertNotNull(userRepository.findTokenState(user.getEmail()).orElseThrow().tokensNotBefore());
+    }
+
+    @Test
+    void rotate_shouldRejectUnknownAndRevokedTokens() {
+        String token = refreshTokenService.issue(user);
+        refreshTokenService.revoke(token);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("unknown"));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(token));
+    }
+}
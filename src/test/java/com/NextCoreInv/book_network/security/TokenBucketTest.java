@@ -0,0 +1,67 @@
+package com.NextCoreInv.book_network.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_shouldAllowBurstThenRefillOverTime() {
+        // 5 tokens, one back every 12 seconds
+        TokenBucket bucket = new TokenBucket(5, Duration.ofMinutes(1), 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryConsume(0));
+        }
+        assertFalse(bucket.tryConsume(0));
+        assertEquals(Duration.ofSeconds(12), bucket.timeToNextToken(0));
+
+        assertFalse(bucket.tryConsume(11 * SECOND));
+        assertTrue(bucket.tryConsume(12 * SECOND));
+        assertFalse(bucket.tryConsume(12 * SECOND));
+        // Idle for a long time, the bucket is full again but not above capacity
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryConsume(600 * SECOND));
+        }
+        assertFalse(bucket.tryConsume(600 * SECOND));
+    }
+
+    @Test
+    void tryConsume_shouldNeverHandOutMoreThanCapacity_underContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, Duration.ofHours(1), 0);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryConsume(0)) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+    }
+}
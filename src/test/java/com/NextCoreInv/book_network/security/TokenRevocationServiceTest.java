@@ -0,0 +1,110 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.user.UserDetailsChangedEvent;
+import com.NextCoreInv.book_network.user.UserRepository;
+import com.NextCoreInv.book_network.user.UserTokenState;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    private static final String EMAIL = "john.doe@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(userRepository);
+        ReflectionTestUtils.setField(revocationService, "checkTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(revocationService, "checkCacheSize", 100L);
+        revocationService.init();
+    }
+
+    @Test
+    void isRevoked_shouldRejectTokensIssuedUpToTheStoredInstant() {
+        LocalDateTime revokedAt = LocalDateTime.now().minusMinutes(1);
+        when(userRepository.findTokenState(EMAIL)).thenReturn(Optional.of(new UserTokenState(true, false, revokedAt)));
+
+        assertTrue(revocationService.isRevoked(claims(EMAIL, Instant.now().minusSeconds(120))));
+        assertFalse(revocationService.isRevoked(claims(EMAIL, Instant.now())));
+        verify(userRepository, times(1)).findTokenState(EMAIL);
+    }
+
+    @Test
+    void isRevoked_shouldAcceptTokenIssuedInTheRevocationSecond() {
+        Instant second = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime revokedAt = LocalDateTime.ofInstant(second.plusMillis(400), ZoneId.systemDefault());
+        when(userRepository.findTokenState(EMAIL)).thenReturn(Optional.of(new UserTokenState(true, false, revokedAt)));
+
+        assertFalse(revocationService.isRevoked(claims(EMAIL, second)));
+        assertTrue(revocationService.isRevoked(claims(EMAIL, second.minusSeconds(1))));
+    }
+
+    @Test
+    void revokeAll_shouldStoreNotBefore_roundedDownToTheSecond() {
+        revocationService.revokeAll(EMAIL);
+
+        ArgumentCaptor<LocalDateTime> notBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(userRepository).revokeTokens(eq(EMAIL), notBefore.capture());
+        assertEquals(0, notBefore.getValue().getNano());
+    }
+
+    @Test
+    void isRevoked_shouldRejectTokensOfDisabledLockedOrDeletedUsers() {
+        when(userRepository.findTokenState(EMAIL)).thenReturn(Optional.of(new UserTokenState(true, true, null)));
+        when(userRepository.findTokenState("jane.doe@example.com")).thenReturn(Optional.of(new UserTokenState(false, false, null)));
+        when(userRepository.findTokenState("gone@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(revocationService.isRevoked(claims(EMAIL, Instant.now())));
+        assertTrue(revocationService.isRevoked(claims("jane.doe@example.com", Instant.now())));
+        assertTrue(revocationService.isRevoked(claims("gone@example.com", Instant.now())));
+    }
+
+    @Test
+    void onUserDetailsChanged_shouldPersistRevocation_andReadStateAgain() {
+        when(userRepository.findTokenState(EMAIL)).thenReturn(Optional.of(new UserTokenState(true, false, null)));
+        Claims claims = claims(EMAIL, Instant.now().minusSeconds(60));
+        assertFalse(revocationService.isRevoked(claims));
+
+        when(userRepository.findTokenState(EMAIL))
+                .thenReturn(Optional.of(new UserTokenState(true, false, LocalDateTime.now())));
+        revocationService.onUserDetailsChanged(new UserDetailsChangedEvent(EMAIL));
+
+        verify(userRepository).revokeTokens(eq(EMAIL), any(LocalDateTime.class));
+        assertTrue(revocationService.isRevoked(claims));
+    }
+
+    private static Claims claims(String subject, Instant issuedAt) {
+        return Jwts.claims()
+                .setSubject(subject)
+                .setIssuedAt(Date.from(issuedAt));
+    }
+}
@@ -0,0 +1,86 @@
+package com.NextCoreInv.book_network.security;
+
+import com.NextCoreInv.book_network.user.User;
+import com.NextCoreInv.book_network.user.UserDetailsChangedEvent;
+import com.NextCoreInv.book_network.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserDetailsServiceImplTest {
+
+    private static final String EMAIL = "john.doe@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        userDetailsService = new UserDetailsServiceImpl(userRepository, beanFactory.getBeanProvider(MeterRegistry.class));
+        ReflectionTestUtils.setField(userDetailsService, "cacheEnabled", true);
+        ReflectionTestUtils.setField(userDetailsService, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(userDetailsService, "cacheTtl", Duration.ofMinutes(10));
+        userDetailsService.init();
+    }
+
+    @Test
+    void loadUserByUsername_shouldHitDatabaseOnce_untilUserChanges() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(User.builder().email(EMAIL).build()));
+
+        userDetailsService.loadUserByUsername(EMAIL);
+        userDetailsService.loadUserByUsername(EMAIL);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+
+        userDetailsService.onUserDetailsChanged(new UserDetailsChangedEvent(EMAIL));
+        userDetailsService.loadUserByUsername(EMAIL);
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void loadUserByUsername_shouldNotCacheMissingUsers() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(EMAIL));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(EMAIL));
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void updatePassword_shouldStoreNewHash_andEvictCachedUser() {
+        User stored = User.builder().email(EMAIL).password("$2a$04$old").build();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(stored));
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        UserDetails updated = userDetailsService.updatePassword(stored, "{bcrypt}$2a$12$new");
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        assertEquals("{bcrypt}$2a$12$new", updated.getPassword());
+        verify(userRepository).save(stored);
+        verify(userRepository, times(3)).findByEmail(EMAIL);
+    }
+}
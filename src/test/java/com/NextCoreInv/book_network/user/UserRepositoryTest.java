@@ -8,8 +8,13 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -31,4 +36,36 @@ public class UserRepositoryTest {
 
         assertTrue(foundUser.isPresent());
     }
+
+    @Test
+    void lock_shouldLockOnce_andUnlockAfterLockout() {
+        User user = new User();
+        user.setEmail("locked@test.com");
+        user.setCreatedDate(LocalDateTime.now());
+        userRepository.saveAndFlush(user);
+        LocalDateTime lockedAt = LocalDateTime.now().minusMinutes(20).truncatedTo(ChronoUnit.SECONDS);
+
+        assertEquals(1, userRepository.lock("locked@test.com", lockedAt));
+        assertEquals(0, userRepository.lock("locked@test.com", LocalDateTime.now()));
+        assertEquals(List.of(), userRepository.findEmailsLockedBefore(lockedAt));
+        assertEquals(List.of("locked@test.com"), userRepository.findEmailsLockedBefore(LocalDateTime.now().minusMinutes(15)));
+
+        assertEquals(1, userRepository.unlockLockedBefore(LocalDateTime.now().minusMinutes(15)));
+        assertFalse(userRepository.findByEmail("locked@test.com").orElseThrow().isAccountLocked());
+    }
+
+    @Test
+    void revokeTokens_shouldStoreNotBefore_inTokenState() {
+        User user = new User();
+        user.setEmail("revoked@test.com");
+        user.setEnabled(true);
+        user.setCreatedDate(LocalDateTime.now());
+        userRepository.saveAndFlush(user);
+        LocalDateTime revokedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        assertEquals(new UserTokenState(true, false, null), userRepository.findTokenState("revoked@test.com").orElseThrow());
+        assertEquals(1, userRepository.revokeTokens("revoked@test.com", revokedAt));
+        assertEquals(new UserTokenState(true, false, revokedAt), userRepository.findTokenState("revoked@test.com").orElseThrow());
+        assertTrue(userRepository.findTokenState("unknown@test.com").isEmpty());
+    }
 }